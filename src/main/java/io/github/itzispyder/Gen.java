@@ -5,25 +5,28 @@ import io.github.itzispyder.math.Vector;
 import io.github.itzispyder.render.GraphFunction;
 import io.github.itzispyder.render.WorldManager;
 import io.github.itzispyder.render.entity.Tree;
+import io.github.itzispyder.render.terrain.ChunkedTerrain;
 import io.github.itzispyder.util.Mth;
 
+import java.util.function.DoubleBinaryOperator;
+
 public class Gen {
 
-    public static final GraphFunction GRAPH_PILLARS = new GraphFunction(Vector.ZERO, -67, -50, 67, 50, 1, (x, z) -> {
-        return (1F / 23) * Math.pow(0.1 * z, 5) * Math.sin(0.2 * x);
-    }, 0x30FFFFFF);
-    public static final GraphFunction GRAPH_WATER = new GraphFunction(Vector.ZERO, -50, -50, 50, 50, 1, (x, z) -> {
-        return Math.cos(0.015 * x * z);
-    }, 0x3000b7ff);
-    public static final GraphFunction GRAPH_TURF = new GraphFunction(Vector.ZERO, -100, -100, 100, 100, 2, (x, z) -> {
-        return Math.cos(0.1 * x) * Math.sin(0.1 * z);
-    }, 0xFF02400c);
-    public static final GraphFunction GRAPH_RIPPLE = new GraphFunction(Vector.ZERO, -50, -50, 50, 50, 1, (x, z) -> {
-        return Math.cos(Math.sqrt(0.1 * x * x + 0.1 * z * z));
-    }, 0x3000b7ff);
-    public static final GraphFunction GRAPH_CUP = new GraphFunction(Vector.ZERO, -50, -50, 50, 50, 1, (x, z) -> {
-        return 0.015 * (x * x + z * z);
-    }, 0x3000b7ff);
+    public static final DoubleBinaryOperator PILLARS = HeightFunctions.PILLARS;
+    public static final DoubleBinaryOperator WATER = HeightFunctions.WATER;
+    public static final DoubleBinaryOperator TURF = HeightFunctions.TURF;
+    public static final DoubleBinaryOperator RIPPLE = HeightFunctions.RIPPLE;
+    public static final DoubleBinaryOperator CUP = HeightFunctions.CUP;
+
+    public static final GraphFunction GRAPH_PILLARS = new GraphFunction(Vector.ZERO, -67, -50, 67, 50, 1, PILLARS, 0x30FFFFFF);
+    public static final GraphFunction GRAPH_WATER = new GraphFunction(Vector.ZERO, -50, -50, 50, 50, 1, WATER, 0x3000b7ff);
+    public static final GraphFunction GRAPH_TURF = new GraphFunction(Vector.ZERO, -100, -100, 100, 100, 2, TURF, 0xFF02400c);
+    public static final GraphFunction GRAPH_RIPPLE = new GraphFunction(Vector.ZERO, -50, -50, 50, 50, 1, RIPPLE, 0x3000b7ff);
+    public static final GraphFunction GRAPH_CUP = new GraphFunction(Vector.ZERO, -50, -50, 50, 50, 1, CUP, 0x3000b7ff);
+
+    // same functions, without edges
+    public static final ChunkedTerrain TERRAIN_TURF = new ChunkedTerrain(2, TURF, 0xFF02400c);
+    public static final ChunkedTerrain TERRAIN_RIPPLE = new ChunkedTerrain(1, RIPPLE, 0x3000b7ff);
 
     public static void generateWorld(WorldManager world, Camera camera) {
         genTrees(world, camera);
@@ -0,0 +1,17 @@
+package io.github.itzispyder;
+
+import java.util.function.DoubleBinaryOperator;
+
+/**
+ * Height functions of the built-in terrains. They live apart from {@link Gen} on purpose, the graphs in there are
+ * sampled on pool threads while Gen is still initializing, and a lambda declared in Gen would make those threads
+ * wait for Gen's initializer, which is waiting for them.
+ */
+public class HeightFunctions {
+
+    public static final DoubleBinaryOperator PILLARS = (x, z) -> (1F / 23) * Math.pow(0.1 * z, 5) * Math.sin(0.2 * x);
+    public static final DoubleBinaryOperator WATER = (x, z) -> Math.cos(0.015 * x * z);
+    public static final DoubleBinaryOperator TURF = (x, z) -> Math.cos(0.1 * x) * Math.sin(0.1 * z);
+    public static final DoubleBinaryOperator RIPPLE = (x, z) -> Math.cos(Math.sqrt(0.1 * x * x + 0.1 * z * z));
+    public static final DoubleBinaryOperator CUP = (x, z) -> 0.015 * (x * x + z * z);
+}
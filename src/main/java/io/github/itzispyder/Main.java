@@ -1,5 +1,6 @@
 package io.github.itzispyder;
 
+import io.github.itzispyder.app.GameLoop;
 import io.github.itzispyder.app.Keyboard;
 import io.github.itzispyder.app.Mouse;
 import io.github.itzispyder.app.Window;
@@ -9,22 +10,21 @@ import io.github.itzispyder.math.VertexBuffer;
 import io.github.itzispyder.render.StarBox;
 import io.github.itzispyder.render.WorldManager;
 import io.github.itzispyder.render.entity.Sphere;
-import io.github.itzispyder.util.Mth;
 
 public class Main {
 
     public static Window window;
-    public static long time, nextFrameTime;
+    public static GameLoop loop;
     public static Camera camera;
     public static Keyboard keyboard;
     public static Mouse mouse;
     public static VertexBuffer vertexBuffer;
     public static WorldManager world;
-    public static int fps, frame;
 
     private static void init() {
         keyboard = new Keyboard();
         mouse = new Mouse();
+        loop = new GameLoop(Main::onTick, Main::onRender, 5, Integer.getInteger("wireframed.fpsCap", 120));
         window = new Window("Wireframed");
         window.open();
         camera = new Camera();
@@ -36,32 +36,30 @@ public class Main {
         // map
         world.addEntity(new StarBox());
         world.addEntity(new Sphere(5));
-        world.tile = Gen.GRAPH_PILLARS;
-        world.addEntity(world.tile);
+        world.setTerrain(Gen.GRAPH_PILLARS);
 
         Gen.generateWorld(world, camera);
+        world.publishSnapshot(camera.captureState());
 
         // crosshair
     }
 
     public static float tickDelta() {
-        return Mth.clamp(1 - (time - System.currentTimeMillis()) / 50F, 0, 1);
+        return loop.tickDelta();
     }
 
     public static void onTick() {
         if (keyboard.paused)
             return;
 
-        try {
-            camera.onTick();
-            keyboard.onTick();
-            world.onTick();
-        }
-        catch (IndexOutOfBoundsException ignore) {}
+        camera.onTick();
+        keyboard.onTick();
+        world.onTick();
+        world.publishSnapshot(camera.captureState());
     }
 
     public static void onRender() {
-        window.getRenderPanel().repaint();
+        window.renderFrame();
     }
 
     public static void main(String[] args) {
@@ -70,20 +68,6 @@ public class Main {
     }
 
     private static void startGameLoop() {
-        time = nextFrameTime = System.currentTimeMillis();
-        while (window.isVisible()) {
-            long sysTime = System.currentTimeMillis();
-            if (sysTime >= time) {
-                time += 50;
-                onTick();
-            }
-            if (sysTime >= nextFrameTime) {
-                nextFrameTime += 1000;
-                fps = frame;
-                frame = 0;
-            }
-
-            onRender();
-        }
+        loop.run(window::isVisible);
     }
 }
\ No newline at end of file
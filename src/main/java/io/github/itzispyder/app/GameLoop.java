@@ -0,0 +1,117 @@
+package io.github.itzispyder.app;
+
+import io.github.itzispyder.util.Mth;
+
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Fixed rate ticks with frames paced in between, all timed off {@link System#nanoTime()}.
+ * The thread parks while there is nothing due instead of spinning.
+ */
+public class GameLoop {
+
+    public static final int TICKS_PER_SECOND = 20;
+    public static final long TICK_NANOS = 1_000_000_000L / TICKS_PER_SECOND;
+    public static final int[] FPS_CAPS = {30, 60, 120, 144, 240, 0};
+
+    // close enough to a deadline to stop parking, park overshoots by about this much
+    private static final long SPIN_NANOS = 200_000L;
+
+    private final Runnable tick, render;
+    private final int maxCatchUpTicks;
+    private volatile int fpsCap; // cycled from the event thread
+    private volatile long nextTickTime;
+    private long nextFrameTime, nextSecond;
+    private int frames, fps, droppedTicks;
+
+    /**
+     * @param maxCatchUpTicks ticks allowed back to back after a stall, anything further behind is dropped
+     * @param fpsCap frames per second, 0 for uncapped
+     */
+    public GameLoop(Runnable tick, Runnable render, int maxCatchUpTicks, int fpsCap) {
+        this.tick = tick;
+        this.render = render;
+        this.maxCatchUpTicks = maxCatchUpTicks;
+        this.fpsCap = fpsCap;
+    }
+
+    public void run(BooleanSupplier running) {
+        long now = System.nanoTime();
+        nextTickTime = now;
+        nextFrameTime = now;
+        nextSecond = now + 1_000_000_000L;
+
+        while (running.getAsBoolean()) {
+            now = System.nanoTime();
+
+            int ticks = 0;
+            while (now >= nextTickTime && ticks++ < maxCatchUpTicks) {
+                tick.run();
+                nextTickTime += TICK_NANOS;
+            }
+            if (now - nextTickTime >= TICK_NANOS) {
+                long behind = (now - nextTickTime) / TICK_NANOS;
+                droppedTicks += (int) behind;
+                nextTickTime += behind * TICK_NANOS;
+            }
+
+            int fpsCap = this.fpsCap; // read once, so a toggle mid frame cannot divide by zero
+            now = System.nanoTime();
+            if (fpsCap <= 0 || now >= nextFrameTime) {
+                render.run();
+                frames++;
+                long frameNanos = fpsCap <= 0 ? 0 : 1_000_000_000L / fpsCap;
+                nextFrameTime = Math.max(nextFrameTime + frameNanos, now);
+            }
+
+            if (now >= nextSecond) {
+                fps = frames;
+                frames = 0;
+                nextSecond += 1_000_000_000L * Math.max(1, (now - nextSecond) / 1_000_000_000L);
+            }
+
+            if (fpsCap > 0)
+                sleepUntil(Math.min(nextTickTime, nextFrameTime));
+        }
+    }
+
+    private static void sleepUntil(long deadline) {
+        long remaining;
+        while ((remaining = deadline - System.nanoTime()) > 0) {
+            if (remaining > SPIN_NANOS)
+                LockSupport.parkNanos(remaining - SPIN_NANOS);
+            else
+                Thread.onSpinWait();
+        }
+    }
+
+    /**
+     * @return progress from the last tick towards the next one, in [0, 1]
+     */
+    public float tickDelta() {
+        return Mth.clamp(1 - (nextTickTime - System.nanoTime()) / (float) TICK_NANOS, 0, 1);
+    }
+
+    public void cycleFpsCap() {
+        for (int i = 0; i < FPS_CAPS.length; i++) {
+            if (FPS_CAPS[i] == fpsCap) {
+                fpsCap = FPS_CAPS[(i + 1) % FPS_CAPS.length];
+                return;
+            }
+        }
+        fpsCap = FPS_CAPS[0];
+    }
+
+    public int getFpsCap() {
+        return fpsCap;
+    }
+
+    public int getFps() {
+        return fps;
+    }
+
+    public int getDroppedTicks() {
+        return droppedTicks;
+    }
+}
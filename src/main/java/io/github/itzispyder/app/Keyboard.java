@@ -1,12 +1,12 @@
 package io.github.itzispyder.app;
 
 import io.github.itzispyder.math.Vector;
-import io.github.itzispyder.render.GraphFunction;
+import io.github.itzispyder.render.terrain.Terrain;
 
 import javax.swing.*;
 import java.awt.event.KeyEvent;
-import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 import static io.github.itzispyder.Gen.*;
 import static io.github.itzispyder.Main.*;
@@ -14,12 +14,15 @@ import static io.github.itzispyder.Main.*;
 public class Keyboard {
 
     private final List<Integer> pressedKeys;
-    public boolean forward, backward, left, right, paused, ascend, descend, fly;
-    public boolean accelerating, fullScreen;
+    public boolean forward, backward, left, right, ascend, descend;
+    public volatile boolean paused, fly, accelerating; // toggled from the event thread, read by the tick thread
+    public boolean fullScreen;
     public int mapToggleIndex;
+    private volatile boolean swapMap;
 
     public Keyboard() {
-        this.pressedKeys = new ArrayList<>();
+        // written by the event thread, read by the tick thread
+        this.pressedKeys = new CopyOnWriteArrayList<>();
     }
 
     public void onTick() {
@@ -34,6 +37,13 @@ public class Keyboard {
             case KeyEvent.VK_SPACE -> ascend = true;
         }
 
+        if (swapMap) {
+            swapMap = false;
+            Terrain[] maps = {GRAPH_PILLARS, GRAPH_WATER, GRAPH_TURF, GRAPH_RIPPLE, GRAPH_CUP, TERRAIN_TURF, TERRAIN_RIPPLE};
+            world.setTerrain(maps[++mapToggleIndex % maps.length]);
+            camera.position = world.terrain.getGraphAt(camera.position);
+        }
+
         if (!paused && window.isFocused()) {
             mouse.zero(window);
             mouse.syncCursor(window);
@@ -52,11 +62,19 @@ public class Keyboard {
             camera.velocity = Vector.ZERO;
         }
         if (keycode == KeyEvent.VK_R) {
-            GraphFunction[] graphs = {GRAPH_PILLARS, GRAPH_WATER, GRAPH_TURF, GRAPH_RIPPLE, GRAPH_CUP};
-            world.removeEntity(world.tile);
-            world.tile = graphs[++mapToggleIndex % graphs.length];
-            world.addEntity(world.tile);
-            camera.position = world.tile.getGraphAt(camera.position);
+            swapMap = true; // the world belongs to the tick thread
+        }
+        if (keycode == KeyEvent.VK_F) {
+            loop.cycleFpsCap();
+        }
+        if (keycode == KeyEvent.VK_B) {
+            window.backend = window.backend.next();
+        }
+        if (keycode == KeyEvent.VK_L) {
+            world.levelOfDetail.enabled = !world.levelOfDetail.enabled;
+        }
+        if (keycode == KeyEvent.VK_O) {
+            window.sortCommands = !window.sortCommands;
         }
         if (keycode == KeyEvent.VK_F11) {
             fullScreen = !fullScreen;
@@ -2,57 +2,129 @@ package io.github.itzispyder.app;
 
 import io.github.itzispyder.Main;
 import io.github.itzispyder.math.Camera;
+import io.github.itzispyder.math.CameraView;
+import io.github.itzispyder.math.CommandList;
+import io.github.itzispyder.math.Graphics2DSink;
+import io.github.itzispyder.render.LevelOfDetail;
+import io.github.itzispyder.render.RenderBackend;
+import io.github.itzispyder.render.RenderSnapshot;
+import io.github.itzispyder.render.raster.Rasterizer;
+import io.github.itzispyder.render.raster.TiledRasterizer;
 
 import javax.swing.*;
 import java.awt.*;
 import java.awt.event.*;
+import java.awt.image.BufferStrategy;
 
 import static io.github.itzispyder.Main.*;
 
+@SuppressWarnings("serial") // never serialized
 public class Window extends JFrame {
 
-    private final JPanel renderPanel;
+    private final Canvas renderCanvas;
+    private final Graphics2DSink graphicsSink;
+    private final CommandList commands;
+    private final Rasterizer rasterizer;
+    private final TiledRasterizer tiledRasterizer;
+    public volatile RenderBackend backend; // toggled from the event thread
+    public volatile boolean sortCommands; // toggled from the event thread
 
     public Window(String title) {
         super(title);
-        this.renderPanel = new JPanel() {
-            @Override
-            public void paint(Graphics g) {
-                super.paint(g);
-                if (world == null)
-                    return;
-
-                float tickDelta = Main.tickDelta();
-                int w = this.getWidth();
-                int h = this.getHeight();
-
-                world.render(vertexBuffer, tickDelta);
-                g.setColor(Color.BLACK);
-                g.fillRect(0, 0, w, h);
-                vertexBuffer.drawTo(camera, g, tickDelta);
-                Window.this.renderFps(g);
-                vertexBuffer.clear();
-
-                // crosshair cursor
-                int crossRad = 10;
-                g.setColor(Color.WHITE);
-                g.drawLine(w / 2, h / 2 - crossRad, w / 2, h / 2 + crossRad);
-                g.drawLine(w / 2 - crossRad, h / 2, w / 2 + crossRad, h / 2);
-
-                // update fps
-                frame++;
+        this.graphicsSink = new Graphics2DSink();
+        this.commands = new CommandList();
+        this.rasterizer = new Rasterizer();
+        this.tiledRasterizer = new TiledRasterizer();
+        this.backend = RenderBackend.GRAPHICS_2D;
+        this.renderCanvas = new Canvas();
+        this.renderCanvas.setIgnoreRepaint(true);
+        this.renderCanvas.setFocusable(false);
+        this.renderCanvas.setCursor(CustomCursor.CURSOR_INVISIBLE);
+        this.renderCanvas.setBackground(Color.BLACK);
+        this.add(renderCanvas);
+    }
+
+    /**
+     * Draws and presents one frame right away, called by the game loop instead of going through repaint()
+     */
+    public void renderFrame() {
+        BufferStrategy strategy = renderCanvas.getBufferStrategy();
+        if (strategy == null || !renderCanvas.isDisplayable())
+            return;
+
+        do {
+            do {
+                Graphics g = strategy.getDrawGraphics();
+                try {
+                    paintFrame(g, renderCanvas.getWidth(), renderCanvas.getHeight());
+                }
+                finally {
+                    g.dispose();
+                }
+            }
+            while (strategy.contentsRestored());
+            strategy.show();
+        }
+        while (strategy.contentsLost());
+        Toolkit.getDefaultToolkit().sync();
+    }
+
+    private void paintFrame(Graphics g, int w, int h) {
+        g.setColor(Color.BLACK);
+        g.fillRect(0, 0, w, h);
+        if (world == null)
+            return;
+        RenderSnapshot snapshot = world.acquireSnapshot();
+        if (snapshot.getCamera() == null)
+            return;
+
+        float tickDelta = Main.tickDelta();
+        CameraView view = snapshot.getCamera().view(tickDelta);
+        world.render(vertexBuffer, snapshot, view, tickDelta);
+        switch (backend) {
+            case GRAPHICS_2D -> {
+                graphicsSink.setContext((Graphics2D) g);
+                if (sortCommands) {
+                    // records the frame first and replays the lines grouped by color, java2d pays for every color change
+                    commands.clear();
+                    vertexBuffer.drawTo(view, commands);
+                    commands.sort();
+                    commands.execute(graphicsSink);
+                }
+                else {
+                    vertexBuffer.drawTo(view, graphicsSink);
+                }
+                graphicsSink.flush();
+            }
+            case RASTERIZER -> {
+                rasterizer.resize(w, h);
+                rasterizer.clear(0xFF000000);
+                vertexBuffer.drawTo(view, rasterizer);
+                rasterizer.blit(g);
             }
-        };
-        this.renderPanel.setCursor(CustomCursor.CURSOR_INVISIBLE);
-        this.renderPanel.setBackground(Color.BLACK);
-        this.renderPanel.setDoubleBuffered(false);
-        this.add(renderPanel);
+            case TILED_RASTERIZER -> {
+                tiledRasterizer.resize(w, h);
+                tiledRasterizer.clear(0xFF000000);
+                vertexBuffer.drawTo(view, tiledRasterizer);
+                tiledRasterizer.flush();
+                tiledRasterizer.blit(g);
+            }
+        }
+        this.renderFps(g, snapshot);
+        vertexBuffer.clear();
+
+        // crosshair cursor
+        int crossRad = 10;
+        g.setColor(Color.WHITE);
+        g.drawLine(w / 2, h / 2 - crossRad, w / 2, h / 2 + crossRad);
+        g.drawLine(w / 2 - crossRad, h / 2, w / 2 + crossRad, h / 2);
     }
 
     public void open() {
         this.setSize(1000, 500);
         this.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
         this.setVisible(true);
+        this.renderCanvas.createBufferStrategy(3);
         this.addKeyListener(new KeyAdapter() {
             @Override
             public void keyPressed(KeyEvent e) {
@@ -64,18 +136,21 @@ public class Window extends JFrame {
                 keyboard.releaseKey(e.getKeyCode());
             }
         });
-        this.addMouseMotionListener(new MouseAdapter() {
+        // the canvas is heavyweight and swallows mouse events, positions are kept relative to the frame
+        renderCanvas.addMouseMotionListener(new MouseAdapter() {
             @Override
             public void mouseMoved(MouseEvent e) {
-                mouse.moveTo(e.getX(), e.getY());
+                Point p = SwingUtilities.convertPoint(renderCanvas, e.getPoint(), Window.this);
+                mouse.moveTo(p.x, p.y);
             }
 
             @Override
             public void mouseDragged(MouseEvent e) {
-                mouse.moveTo(e.getX(), e.getY());
+                Point p = SwingUtilities.convertPoint(renderCanvas, e.getPoint(), Window.this);
+                mouse.moveTo(p.x, p.y);
             }
         });
-        this.addMouseListener(new MouseAdapter() {
+        renderCanvas.addMouseListener(new MouseAdapter() {
             @Override
             public void mousePressed(MouseEvent e) {
                 switch (e.getButton()) {
@@ -94,7 +169,7 @@ public class Window extends JFrame {
                 mouse.onClick(e.getButton(), 0);
             }
         });
-        this.addMouseWheelListener(new MouseAdapter() {
+        renderCanvas.addMouseWheelListener(new MouseAdapter() {
             @Override
             public void mouseWheelMoved(MouseWheelEvent e) {
                 mouse.onScroll(e.getWheelRotation());
@@ -107,26 +182,40 @@ public class Window extends JFrame {
         });
     }
 
-    public JPanel getRenderPanel() {
-        return renderPanel;
-    }
-
-    private void renderFps(Graphics g) {
+    private void renderFps(Graphics g, RenderSnapshot snapshot) {
         g.setColor(Color.WHITE);
         g.setFont(new Font("segoe", Font.PLAIN, 20));
 
         int x = 10;
         int y = 25;
-        g.drawString("FPS: " + fps, x, y);
+        int cap = loop.getFpsCap();
+        g.drawString("FPS: " + loop.getFps() + (cap > 0 ? " (cap " + cap + ")" : " (uncapped)"), x, y);
+
+        y += 20;
+        g.drawString("Dropped Ticks: " + loop.getDroppedTicks(), x, y);
+
+        y += 20;
+        g.drawString("Position: " + snapshot.getCamera().position.toStringFloored(), x, y);
+
+        y += 20;
+        g.drawString("Velocity: " + Camera.getMovement().add(snapshot.getCamera().velocity).toString(), x, y);
 
         y += 20;
-        g.drawString("Position: " + camera.position.toStringFloored(), x, y);
+        g.drawString("Backend: " + backend.name, x, y);
+
+        if (backend == RenderBackend.GRAPHICS_2D) {
+            y += 20;
+            g.drawString("State Changes: " + graphicsSink.getStateChanges(), x, y);
+
+            y += 20;
+            g.drawString(sortCommands ? "Commands: " + commands.getCommandCount() + " (sorted)" : "Commands: direct", x, y);
+        }
 
         y += 20;
-        g.drawString("Velocity: " + Camera.getMovement().add(camera.velocity).toString(), x, y);
+        g.drawString("Entities: " + snapshot.getEntityCount(), x, y);
 
         y += 20;
-        g.drawString("Entities: " + world.getEntities().size(), x, y);
+        g.drawString("Drawn/Culled: " + world.getDrawnEntities() + "/" + world.getCulledEntities(), x, y);
 
         y += 20;
         g.drawString("Vertex Buffer: " + vertexBuffer.getSize() + "/" + vertexBuffer.getCapacity(), x, y);
@@ -134,5 +223,12 @@ public class Window extends JFrame {
         y += 20;
         int usage = (int) (vertexBuffer.getSize() * 100.0 / vertexBuffer.getCapacity());
         g.drawString("Buffer Usage: " + usage + "%", x, y);
+
+        y += 20;
+        g.drawString("Instances: " + vertexBuffer.getInstanceCount() + " (" + vertexBuffer.getExpandedSize() + " vertices)", x, y);
+
+        y += 20;
+        LevelOfDetail lod = world.levelOfDetail;
+        g.drawString("LOD: " + (lod.enabled ? "on" : "off") + ", " + lod.getVerticesSaved() + " vertices saved", x, y);
     }
 }
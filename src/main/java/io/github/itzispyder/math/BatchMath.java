@@ -0,0 +1,48 @@
+package io.github.itzispyder.math;
+
+/**
+ * Bulk point math over struct-of-arrays coordinates. This is the scalar implementation,
+ * {@link #get()} hands out a SIMD one instead when the JVM runs with {@code --add-modules jdk.incubator.vector}.
+ * Both do the exact same float operations in the same order, so their results are identical.
+ */
+public class BatchMath {
+
+    private static final BatchMath INSTANCE = load();
+
+    private static BatchMath load() {
+        try {
+            return (BatchMath) Class.forName("io.github.itzispyder.math.VectorBatchMath").getDeclaredConstructor().newInstance();
+        }
+        catch (ReflectiveOperationException | LinkageError ex) {
+            return new BatchMath(); // incubator module not enabled
+        }
+    }
+
+    public static BatchMath get() {
+        return INSTANCE;
+    }
+
+    BatchMath() {
+
+    }
+
+    /**
+     * Multiplies {@code count} points starting at {@code from} by a 4x4 matrix, given as 16 row major floats
+     * at {@code m[mOffset]}, and divides by w. Results are written starting at {@code outFrom},
+     * {@code outW} receives the clip space w of each point.
+     */
+    public void project(float[] m, int mOffset, float[] xs, float[] ys, float[] zs, int from,
+                        float[] outX, float[] outY, float[] outW, int outFrom, int count) {
+        float m00 = m[mOffset], m01 = m[mOffset + 1], m02 = m[mOffset + 2], m03 = m[mOffset + 3];
+        float m10 = m[mOffset + 4], m11 = m[mOffset + 5], m12 = m[mOffset + 6], m13 = m[mOffset + 7];
+        float m30 = m[mOffset + 12], m31 = m[mOffset + 13], m32 = m[mOffset + 14], m33 = m[mOffset + 15];
+
+        for (int i = 0; i < count; i++) {
+            float x = xs[from + i], y = ys[from + i], z = zs[from + i];
+            float w = m30 * x + m31 * y + m32 * z + m33;
+            outX[outFrom + i] = (m00 * x + m01 * y + m02 * z + m03) / w;
+            outY[outFrom + i] = (m10 * x + m11 * y + m12 * z + m13) / w;
+            outW[outFrom + i] = w;
+        }
+    }
+}
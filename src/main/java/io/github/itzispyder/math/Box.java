@@ -0,0 +1,56 @@
+package io.github.itzispyder.math;
+
+/**
+ * Axis aligned bounding box
+ */
+public class Box {
+
+    public final float minX, minY, minZ;
+    public final float maxX, maxY, maxZ;
+
+    public Box(float minX, float minY, float minZ, float maxX, float maxY, float maxZ) {
+        this.minX = Math.min(minX, maxX);
+        this.minY = Math.min(minY, maxY);
+        this.minZ = Math.min(minZ, maxZ);
+        this.maxX = Math.max(minX, maxX);
+        this.maxY = Math.max(minY, maxY);
+        this.maxZ = Math.max(minZ, maxZ);
+    }
+
+    public Box(Vector min, Vector max) {
+        this(min.x, min.y, min.z, max.x, max.y, max.z);
+    }
+
+    public static Box around(Vector center, float radius) {
+        return new Box(center.sub(radius), center.add(radius));
+    }
+
+    public Box offset(Vector v) {
+        return new Box(minX + v.x, minY + v.y, minZ + v.z, maxX + v.x, maxY + v.y, maxZ + v.z);
+    }
+
+    /**
+     * @return radius of the sphere that encloses this box
+     */
+    public float getRadius() {
+        float dx = maxX - minX;
+        float dy = maxY - minY;
+        float dz = maxZ - minZ;
+        return (float) Math.sqrt(dx * dx + dy * dy + dz * dz) * 0.5F;
+    }
+
+    /**
+     * @return squared distance from the point to the closest point of this box, 0 if the point is inside
+     */
+    public float distanceSquaredTo(float x, float y, float z) {
+        float dx = Math.max(Math.max(minX - x, x - maxX), 0);
+        float dy = Math.max(Math.max(minY - y, y - maxY), 0);
+        float dz = Math.max(Math.max(minZ - z, z - maxZ), 0);
+        return dx * dx + dy * dy + dz * dz;
+    }
+
+    @Override
+    public String toString() {
+        return "[" + minX + ", " + minY + ", " + minZ + " -> " + maxX + ", " + maxY + ", " + maxZ + "]";
+    }
+}
@@ -17,6 +17,7 @@ public class Camera {
     public float prevPitch, prevYaw, pitch, yaw;
     public final Animator fovAnimator;
     public float height;
+    private final MutableVector movement, predictPosition;
 
     public Camera() {
         this.focalLength = 0.15F;
@@ -29,6 +30,8 @@ public class Camera {
         this.fovAnimator = new PollingAnimator(150, () -> keyboard.accelerating || keyboard.fly);
         this.height = 1.6F;
         this.velocity = Vector.ZERO;
+        this.movement = new MutableVector();
+        this.predictPosition = new MutableVector();
     }
 
     public void updateBounds(Window window) {
@@ -45,21 +48,21 @@ public class Camera {
         pitch = Mth.clamp(pitch, -90, 90);
         yaw += mouse.pollDeltaX() * 0.05F;
 
-        Vector movement = Matrix.ROT_Y(yaw * Mth.TO_RAD).transform(getMovement());
-        Vector predictPosition = position.add(movement).add(velocity);
+        getMovement(movement).rotateY(yaw * Mth.TO_RAD);
+        predictPosition.set(position).add(movement).add(velocity);
 
-        float predictFloorY = world.tile.getHeightAt(predictPosition.x, predictPosition.z);
+        float predictFloorY = world.terrain.getHeightAt(predictPosition.x, predictPosition.z);
         boolean onGround = position.y <= predictFloorY + 0.05F;
 
         if (!keyboard.fly)
-            this.handleMovementCollisions(movement, onGround, predictFloorY);
+            this.handleMovementCollisions(onGround, predictFloorY);
         else
-            position = predictPosition;
+            position = predictPosition.toVector();
 
         eyePosition = position.add(0, height, 0);
     }
 
-    private void handleMovementCollisions(Vector movement, boolean onGround, float predictFloorY) {
+    private void handleMovementCollisions(boolean onGround, float predictFloorY) {
         if (onGround) {
             if (keyboard.ascend)
                 velocity = velocity.withY(0.25F);
@@ -71,10 +74,10 @@ public class Camera {
         }
 
         if (predictFloorY - position.y < 0.6F) {
-            position = position.add(movement).add(velocity);
-
-            if (position.y < predictFloorY)
-                position = position.withY(predictFloorY);
+            MutableVector next = predictPosition.set(position).add(movement).add(velocity);
+            if (next.y < predictFloorY)
+                next.y = predictFloorY;
+            position = next.toVector();
         }
     }
 
@@ -83,15 +86,22 @@ public class Camera {
      * @return (x, y, z) -> (x, y)
      */
     public Vector project(Vector vector, Vector position, Matrix rotation, float focalLength) {
-        vector = rotation.transform(vector.sub(position)).mul(worldScale);
-        float depth = (vector.z + focalLength) * 0.00025F;
+        return projectInto(vector, position, rotation, focalLength, new MutableVector()).toVector();
+    }
+
+    /**
+     * Allocation free {@link #project(Vector, Vector, Matrix, float)}
+     */
+    public MutableVector projectInto(Vector vector, Vector position, Matrix rotation, float focalLength, MutableVector dest) {
+        rotation.transformInto(vector.x - position.x, vector.y - position.y, vector.z - position.z, dest).mul(worldScale);
+        float depth = (dest.z + focalLength) * CameraView.DEPTH_SCALE;
         if (depth <= 0)
             depth = 0.000000000001F;
 
-        return new Vector(
-             (vector.x * focalLength) / -depth + windowWidth * 0.5,
-             (vector.y * focalLength) / -depth + windowHeight * 0.5,
-             0
+        return dest.set(
+                (float) ((dest.x * focalLength) / -depth + windowWidth * 0.5),
+                (float) ((dest.y * focalLength) / -depth + windowHeight * 0.5),
+                0
         );
     }
 
@@ -100,40 +110,59 @@ public class Camera {
      * @return (x, y, z) -> (x, y)
      */
     public Vector projectTransformedViewSpace(Vector transformedViewSpace, float focalLength) {
-        transformedViewSpace = transformedViewSpace.mul(worldScale);
-        float depth = (transformedViewSpace.z + focalLength) * 0.00025F;
+        return projectTransformedViewSpaceInto(transformedViewSpace, focalLength, new MutableVector()).toVector();
+    }
+
+    /**
+     * Allocation free {@link #projectTransformedViewSpace(Vector, float)}
+     */
+    public MutableVector projectTransformedViewSpaceInto(Vector transformedViewSpace, float focalLength, MutableVector dest) {
+        dest.set(transformedViewSpace).mul(worldScale);
+        float depth = (dest.z + focalLength) * CameraView.DEPTH_SCALE;
 
-        return new Vector(
-                (transformedViewSpace.x * focalLength) / -depth + windowWidth * 0.5,
-                (transformedViewSpace.y * focalLength) / -depth + windowHeight * 0.5,
+        return dest.set(
+                (float) ((dest.x * focalLength) / -depth + windowWidth * 0.5),
+                (float) ((dest.y * focalLength) / -depth + windowHeight * 0.5),
                 0
         );
     }
 
+    public CameraState captureState() {
+        return new CameraState(this, worldScale, windowWidth, windowHeight);
+    }
+
+    public CameraView view(float tickDelta) {
+        return captureState().view(tickDelta);
+    }
+
     public Vector getRotationVector() {
         return Matrix.rotationThirdPerson(this, 1).transform(new Vector(0, 0, 1));
     }
 
     public static Vector getMovement() {
-        Vector movement = Vector.ZERO;
+        return getMovement(new MutableVector()).toVector();
+    }
+
+    public static MutableVector getMovement(MutableVector dest) {
+        dest.set(0, 0, 0);
         if (keyboard.forward) {
-            movement = movement.add(0, 0, 1);
+            dest.add(0, 0, 1);
         }
         if (keyboard.backward) {
-            movement = movement.add(0, 0, -1);
+            dest.add(0, 0, -1);
         }
         if (keyboard.left) {
-            movement = movement.add(1, 0, 0);
+            dest.add(1, 0, 0);
         }
         if (keyboard.right) {
-            movement = movement.add(-1, 0, 0);
+            dest.add(-1, 0, 0);
         }
         if (keyboard.ascend) {
-            movement = movement.add(0, 1, 0);
+            dest.add(0, 1, 0);
         }
         if (keyboard.descend) {
-            movement = movement.add(0, -1, 0);
+            dest.add(0, -1, 0);
         }
-        return movement.mul(keyboard.fly ? 1 : 0.3F);
+        return dest.mul(keyboard.fly ? 1 : 0.3F);
     }
 }
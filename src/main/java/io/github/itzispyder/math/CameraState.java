@@ -0,0 +1,38 @@
+package io.github.itzispyder.math;
+
+import io.github.itzispyder.util.Mth;
+
+/**
+ * Immutable copy of a {@link Camera} taken at the end of a tick
+ */
+public class CameraState {
+
+    public final Vector prevPosition, position, velocity;
+    public final float prevPitch, prevYaw, pitch, yaw;
+    public final float height, focalLength, worldScale;
+    public final float fovProgress; // sprint zoom, read from the animator on the tick thread
+    public final int windowWidth, windowHeight;
+
+    public CameraState(Camera camera, float worldScale, int windowWidth, int windowHeight) {
+        this.prevPosition = camera.prevPosition;
+        this.position = camera.position;
+        this.velocity = camera.velocity;
+        this.prevPitch = camera.prevPitch;
+        this.prevYaw = camera.prevYaw;
+        this.pitch = camera.pitch;
+        this.yaw = camera.yaw;
+        this.height = camera.height;
+        this.focalLength = camera.focalLength;
+        this.worldScale = worldScale;
+        this.windowWidth = windowWidth;
+        this.windowHeight = windowHeight;
+        this.fovProgress = camera.fovAnimator.getProgressClamped();
+    }
+
+    public CameraView view(float tickDelta) {
+        Vector eye = Mth.lerp(prevPosition, position, tickDelta).add(0, height, 0);
+        Matrix rotation = Matrix.rotationFirstPerson(Mth.lerp(prevPitch, pitch, tickDelta), Mth.lerp(prevYaw, yaw, tickDelta));
+        float focalLength = Mth.lerp(this.focalLength, this.focalLength - 0.069F, fovProgress);
+        return new CameraView(eye, rotation, focalLength, worldScale, windowWidth, windowHeight);
+    }
+}
@@ -0,0 +1,45 @@
+package io.github.itzispyder.math;
+
+/**
+ * Snapshot of a {@link Camera} for one frame, with the position, rotation and field of view already interpolated
+ */
+public class CameraView {
+
+    public static final float DEPTH_SCALE = 0.00025F;
+
+    public final Vector eye;
+    public final Matrix rotation;
+    public final float focalLength;
+    public final Matrix4 viewProjection;
+    private final float worldScale, halfWidth, halfHeight;
+
+    public CameraView(Vector eye, Matrix rotation, float focalLength, float worldScale, int windowWidth, int windowHeight) {
+        this.eye = eye;
+        this.rotation = rotation;
+        this.focalLength = focalLength;
+        this.worldScale = worldScale;
+        this.halfWidth = windowWidth * 0.5F;
+        this.halfHeight = windowHeight * 0.5F;
+        this.viewProjection = Matrix4.perspective(focalLength, worldScale, halfWidth, halfHeight).mul(Matrix4.view(rotation, eye));
+    }
+
+    /**
+     * @param w clip space w from {@link #viewProjection}
+     * @return true if the point lies behind the camera
+     */
+    public boolean isBehind(float w) {
+        return w < focalLength;
+    }
+
+    public float getWorldScale() {
+        return worldScale;
+    }
+
+    public float getHalfWidth() {
+        return halfWidth;
+    }
+
+    public float getHalfHeight() {
+        return halfHeight;
+    }
+}
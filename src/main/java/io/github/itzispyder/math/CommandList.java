@@ -0,0 +1,159 @@
+package io.github.itzispyder.math;
+
+import java.util.Arrays;
+
+/**
+ * Screen space draw commands recorded from a {@link VertexTransformer}, replayed into another {@link PrimitiveSink} later.
+ * A command is one state, a format and a color, and the range of points it draws with it.
+ * Consecutive primitives with the same state extend the same command, every polyline is a command of its own.
+ * {@link #sort()} groups line commands by state, so the sink they are replayed into changes state less often.
+ */
+public class CommandList implements PrimitiveSink {
+
+    private int[] xs, ys;
+    private int points;
+
+    private byte[] formats;
+    private int[] colors, starts, ends;
+    private int commands;
+
+    private long[] order; // color, then format, then recording order for lines, fills only by recording order
+    private boolean sorted;
+
+    private final int[] xPoints = new int[4], yPoints = new int[4];
+
+    public CommandList() {
+        this.xs = new int[1024];
+        this.ys = new int[1024];
+        this.formats = new byte[64];
+        this.colors = new int[64];
+        this.starts = new int[64];
+        this.ends = new int[64];
+        this.order = new long[64];
+    }
+
+    public void clear() {
+        points = 0;
+        commands = 0;
+        sorted = false;
+    }
+
+    @Override
+    public void line(int x1, int y1, int x2, int y2, int color) {
+        command(VertexFormat.LINES, color, 2);
+        point(x1, y1);
+        point(x2, y2);
+    }
+
+    @Override
+    public void quad(int[] xPoints, int[] yPoints, int color) {
+        command(VertexFormat.QUADS, color, 4);
+        for (int i = 0; i < 4; i++)
+            point(xPoints[i], yPoints[i]);
+    }
+
+    @Override
+    public void triangle(int[] xPoints, int[] yPoints, int color) {
+        command(VertexFormat.TRIANGLES, color, 3);
+        for (int i = 0; i < 3; i++)
+            point(xPoints[i], yPoints[i]);
+    }
+
+    @Override
+    public void polyline(int[] xPoints, int[] yPoints, int offset, int count, int color) {
+        command(VertexFormat.LINE_STRIP, color, count);
+        for (int i = offset; i < offset + count; i++)
+            point(xPoints[i], yPoints[i]);
+    }
+
+    /**
+     * Makes sure the last command has the given state and room for {@code count} more points
+     */
+    private void command(VertexFormat format, int color, int count) {
+        if (points + count > xs.length) {
+            xs = Arrays.copyOf(xs, Math.max(points + count, xs.length * 2));
+            ys = Arrays.copyOf(ys, xs.length);
+        }
+        int last = commands - 1;
+        if (last >= 0 && !format.isConnected() && formats[last] == format.ordinal() && colors[last] == color)
+            return;
+
+        if (commands == formats.length) {
+            formats = Arrays.copyOf(formats, commands * 2);
+            colors = Arrays.copyOf(colors, commands * 2);
+            starts = Arrays.copyOf(starts, commands * 2);
+            ends = Arrays.copyOf(ends, commands * 2);
+        }
+        formats[commands] = (byte) format.ordinal();
+        colors[commands] = color;
+        starts[commands] = ends[commands] = points;
+        commands++;
+        sorted = false;
+    }
+
+    private void point(int x, int y) {
+        xs[points] = x;
+        ys[points] = y;
+        points++;
+        ends[commands - 1] = points;
+    }
+
+    /**
+     * Orders the line commands between two fills by color, then format. Fills stay where they were recorded,
+     * since they cover whatever was drawn before them, and commands with the same state keep their order.
+     */
+    public void sort() {
+        if (order.length < commands)
+            order = new long[Math.max(commands, order.length * 2)];
+
+        int runStart = 0;
+        for (int c = 0; c <= commands; c++) {
+            if (c < commands && isLine(formats[c])) {
+                order[c] = (colors[c] & 0xFFFFFFFFL) << 32 | (long) formats[c] << 28 | c;
+                continue;
+            }
+            Arrays.sort(order, runStart, c);
+            if (c < commands)
+                order[c] = c;
+            runStart = c + 1;
+        }
+        sorted = true;
+    }
+
+    private static boolean isLine(byte format) {
+        return format == VertexFormat.LINES.ordinal() || format == VertexFormat.LINE_STRIP.ordinal();
+    }
+
+    /**
+     * Replays every command into {@code sink}, in state order if {@link #sort()} was called since the last command
+     */
+    public void execute(PrimitiveSink sink) {
+        for (int i = 0; i < commands; i++) {
+            int c = sorted ? (int) (order[i] & 0xFFFFFFF) : i;
+            VertexFormat format = VertexFormat.byOrdinal(formats[c]);
+            int color = colors[c];
+
+            switch (format) {
+                case LINES -> {
+                    for (int p = starts[c]; p < ends[c]; p += 2)
+                        sink.line(xs[p], ys[p], xs[p + 1], ys[p + 1], color);
+                }
+                case LINE_STRIP -> sink.polyline(xs, ys, starts[c], ends[c] - starts[c], color);
+                default -> {
+                    for (int p = starts[c]; p < ends[c]; p += format.count) {
+                        System.arraycopy(xs, p, xPoints, 0, format.count);
+                        System.arraycopy(ys, p, yPoints, 0, format.count);
+                        if (format == VertexFormat.QUADS)
+                            sink.quad(xPoints, yPoints, color);
+                        else
+                            sink.triangle(xPoints, yPoints, color);
+                    }
+                }
+            }
+        }
+    }
+
+    public int getCommandCount() {
+        return commands;
+    }
+}
@@ -0,0 +1,67 @@
+package io.github.itzispyder.math;
+
+/**
+ * View volume of a {@link CameraView}, cut off at a maximum view distance.
+ * The projection puts a view space point on the window's edge where {@code |x| = slopeX * (z + apexZ)},
+ * the same for y, so the four side planes go through the point {@code z = -apexZ} on the view axis.
+ * A sphere passes when its center is no further than its radius outside each plane and it is not behind the eye,
+ * so whatever is visible has at least some part inside the window.
+ */
+public class Frustum {
+
+    private final CameraView view;
+    private final float maxDistanceSquared;
+    private final float slopeX, slopeY, apexZ;
+    private final float normX, normY;
+
+    public Frustum(CameraView view, float maxDistance) {
+        this.view = view;
+        this.maxDistanceSquared = maxDistance * maxDistance;
+
+        // |x| <= slope * (z + apex) is inside the window
+        this.slopeX = view.getHalfWidth() * CameraView.DEPTH_SCALE / view.focalLength;
+        this.slopeY = view.getHalfHeight() * CameraView.DEPTH_SCALE / view.focalLength;
+        this.apexZ = view.focalLength / view.getWorldScale();
+        this.normX = (float) (1 / Math.sqrt(1 + slopeX * slopeX));
+        this.normY = (float) (1 / Math.sqrt(1 + slopeY * slopeY));
+    }
+
+    public boolean isVisible(Box box) {
+        Vector eye = view.eye;
+        if (box.distanceSquaredTo(eye.x, eye.y, eye.z) > maxDistanceSquared)
+            return false;
+        return this.isInside((box.minX + box.maxX) * 0.5F, (box.minY + box.maxY) * 0.5F, (box.minZ + box.maxZ) * 0.5F, box.getRadius());
+    }
+
+    /**
+     * Whether any part of the sphere at (x, y, z) is visible
+     */
+    public boolean isVisible(float x, float y, float z, float radius) {
+        Vector eye = view.eye;
+        float dx = x - eye.x, dy = y - eye.y, dz = z - eye.z;
+        float distance = (float) Math.sqrt(dx * dx + dy * dy + dz * dz) - radius;
+        if (distance > 0 && distance * distance > maxDistanceSquared)
+            return false;
+        return this.isInside(x, y, z, radius);
+    }
+
+    private boolean isInside(float centerX, float centerY, float centerZ, float radius) {
+        Vector eye = view.eye;
+        float x = centerX - eye.x;
+        float y = centerY - eye.y;
+        float z = centerZ - eye.z;
+
+        Matrix r = view.rotation;
+        float vx = r.mx0 * x + r.mx1 * y + r.mx2 * z;
+        float vy = r.my0 * x + r.my1 * y + r.my2 * z;
+        float vz = r.mz0 * x + r.mz1 * y + r.mz2 * z;
+
+        if (vz + radius < 0)
+            return false;
+
+        float sideX = slopeX * (vz + apexZ);
+        float sideY = slopeY * (vz + apexZ);
+        return (Math.abs(vx) - sideX) * normX <= radius
+                && (Math.abs(vy) - sideY) * normY <= radius;
+    }
+}
@@ -0,0 +1,132 @@
+package io.github.itzispyder.math;
+
+import io.github.itzispyder.util.ColorPalette;
+
+import java.awt.*;
+import java.awt.geom.Path2D;
+
+/**
+ * Draws primitives with Java2D. Consecutive primitives of the same color form one batch,
+ * so the context's color only changes when a batch ends. Opaque lines and polylines of a batch are collected
+ * into one path of at most {@link #MAX_PATH_SEGMENTS} segments and stroked with a single draw call,
+ * call {@link #flush()} once the frame is done. Translucent lines are drawn one by one, so overlaps still blend.
+ */
+public class Graphics2DSink implements PrimitiveSink {
+
+    public static final int MAX_PATH_SEGMENTS = 4096;
+
+    private final ColorPalette palette;
+    private Graphics2D context;
+    private int currentColor;
+    private boolean hasColor;
+    private int stateChanges;
+
+    private final Path2D.Float path;
+    private int pathColor, pathSegments;
+    private boolean hasPath;
+
+    public Graphics2DSink(Graphics2D context) {
+        this.palette = new ColorPalette();
+        this.context = context;
+        this.path = new Path2D.Float(Path2D.WIND_NON_ZERO, 1024);
+    }
+
+    public Graphics2DSink() {
+        this(null);
+    }
+
+    /**
+     * Starts a new frame on the given context, this also resets the state change counter
+     */
+    public void setContext(Graphics2D context) {
+        this.context = context;
+        this.hasColor = false;
+        this.stateChanges = 0;
+        this.path.reset();
+        this.pathSegments = 0;
+        this.hasPath = false;
+    }
+
+    private void color(int color) {
+        if (hasColor && color == currentColor)
+            return;
+
+        context.setColor(palette.get(color));
+        currentColor = color;
+        hasColor = true;
+        stateChanges++;
+    }
+
+    /**
+     * Strokes the lines collected so far
+     */
+    public void flush() {
+        if (!hasPath)
+            return;
+        color(pathColor);
+        context.draw(path);
+        path.reset();
+        pathSegments = 0;
+        hasPath = false;
+    }
+
+    /**
+     * @return whether the segments go into the path, false if they have to be drawn right away
+     */
+    private boolean stroke(int color, int segments) {
+        if (hasPath && (color != pathColor || pathSegments + segments > MAX_PATH_SEGMENTS))
+            flush();
+        if (color >>> 24 != 0xFF) {
+            // one path would cover the overlaps only once, separate lines blend the way they always did
+            color(color);
+            return false;
+        }
+        pathColor = color;
+        pathSegments += segments;
+        hasPath = true;
+        return true;
+    }
+
+    @Override
+    public void line(int x1, int y1, int x2, int y2, int color) {
+        if (!stroke(color, 1)) {
+            context.drawLine(x1, y1, x2, y2);
+            return;
+        }
+        path.moveTo(x1, y1);
+        path.lineTo(x2, y2);
+    }
+
+    @Override
+    public void polyline(int[] xPoints, int[] yPoints, int offset, int count, int color) {
+        if (!stroke(color, count - 1)) {
+            for (int i = offset + 1; i < offset + count; i++)
+                context.drawLine(xPoints[i - 1], yPoints[i - 1], xPoints[i], yPoints[i]);
+            return;
+        }
+        path.moveTo(xPoints[offset], yPoints[offset]);
+        for (int i = offset + 1; i < offset + count; i++)
+            path.lineTo(xPoints[i], yPoints[i]);
+    }
+
+    @Override
+    public void quad(int[] xPoints, int[] yPoints, int color) {
+        flush();
+        color(color);
+        context.fillPolygon(xPoints, yPoints, 4);
+    }
+
+    @Override
+    public void triangle(int[] xPoints, int[] yPoints, int color) {
+        flush();
+        color(color);
+        context.fillPolygon(xPoints, yPoints, 3);
+    }
+
+    /**
+     * @return number of color changes issued to the context since the last {@link #setContext(Graphics2D)}
+     */
+    public int getStateChanges() {
+        return stateChanges;
+    }
+}
@@ -52,10 +52,24 @@ public class Matrix {
         );
     }
 
+    public static Matrix scale(float scale) {
+        return new Matrix(
+                scale, 0, 0,
+                0, scale, 0,
+                0, 0, scale
+        );
+    }
+
     public static Matrix rotationFirstPerson(Camera camera, float tickDelta) {
-        float pitch = Mth.TO_RAD * Mth.lerp(camera.prevPitch, camera.pitch, tickDelta);
-        float yaw = Mth.TO_RAD * Mth.lerp(camera.prevYaw, camera.yaw, tickDelta);
-        return ROT_X(-pitch).mul(ROT_Y(-yaw));
+        return rotationFirstPerson(Mth.lerp(camera.prevPitch, camera.pitch, tickDelta), Mth.lerp(camera.prevYaw, camera.yaw, tickDelta));
+    }
+
+    /**
+     * @param pitch degrees
+     * @param yaw degrees
+     */
+    public static Matrix rotationFirstPerson(float pitch, float yaw) {
+        return ROT_X(-pitch * Mth.TO_RAD).mul(ROT_Y(-yaw * Mth.TO_RAD));
     }
 
     public static Matrix rotationThirdPerson(Camera camera, float tickDelta) {
@@ -87,4 +101,22 @@ public class Matrix {
 
         return new Vector(nx0, ny0, nz0);
     }
+
+    /**
+     * Allocation free {@link #transform(Vector)}, {@code dest} may alias the input
+     */
+    public MutableVector transformInto(float x, float y, float z, MutableVector dest) {
+        return dest.set(
+                mx0 * x + mx1 * y + mx2 * z,
+                my0 * x + my1 * y + my2 * z,
+                mz0 * x + mz1 * y + mz2 * z);
+    }
+
+    public MutableVector transformInto(Vector v, MutableVector dest) {
+        return transformInto(v.x, v.y, v.z, dest);
+    }
+
+    public MutableVector transformInto(MutableVector v, MutableVector dest) {
+        return transformInto(v.x, v.y, v.z, dest);
+    }
 }
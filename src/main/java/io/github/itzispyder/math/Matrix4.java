@@ -0,0 +1,110 @@
+package io.github.itzispyder.math;
+
+/**
+ * Homogeneous 4x4 matrix, row major. Used for the per frame view-projection so a vertex goes from
+ * world space to the screen with a single multiply and a divide by w.
+ */
+public class Matrix4 {
+
+    public static final Matrix4 IDENTITY = new Matrix4(
+            1, 0, 0, 0,
+            0, 1, 0, 0,
+            0, 0, 1, 0,
+            0, 0, 0, 1
+    );
+
+    public final float m00, m01, m02, m03;
+    public final float m10, m11, m12, m13;
+    public final float m20, m21, m22, m23;
+    public final float m30, m31, m32, m33;
+
+    public Matrix4(float m00, float m01, float m02, float m03,
+                   float m10, float m11, float m12, float m13,
+                   float m20, float m21, float m22, float m23,
+                   float m30, float m31, float m32, float m33) {
+        this.m00 = m00; this.m01 = m01; this.m02 = m02; this.m03 = m03;
+        this.m10 = m10; this.m11 = m11; this.m12 = m12; this.m13 = m13;
+        this.m20 = m20; this.m21 = m21; this.m22 = m22; this.m23 = m23;
+        this.m30 = m30; this.m31 = m31; this.m32 = m32; this.m33 = m33;
+    }
+
+    /**
+     * World to view space, translates by {@code -eye} then rotates
+     */
+    public static Matrix4 view(Matrix rotation, Vector eye) {
+        Matrix r = rotation;
+        return new Matrix4(
+                r.mx0, r.mx1, r.mx2, -(r.mx0 * eye.x + r.mx1 * eye.y + r.mx2 * eye.z),
+                r.my0, r.my1, r.my2, -(r.my0 * eye.x + r.my1 * eye.y + r.my2 * eye.z),
+                r.mz0, r.mz1, r.mz2, -(r.mz0 * eye.x + r.mz1 * eye.y + r.mz2 * eye.z),
+                0, 0, 0, 1
+        );
+    }
+
+    /**
+     * View space to screen space, same projection as {@link Camera#projectTransformedViewSpace(Vector, float)}.
+     * The resulting w is {@code viewZ * worldScale + focalLength}, so anything behind the camera has {@code w < focalLength}.
+     * Clip z keeps the view space depth.
+     */
+    public static Matrix4 perspective(float focalLength, float worldScale, float halfWidth, float halfHeight) {
+        float k = -worldScale * focalLength / CameraView.DEPTH_SCALE;
+        return new Matrix4(
+                k, 0, halfWidth * worldScale, halfWidth * focalLength,
+                0, k, halfHeight * worldScale, halfHeight * focalLength,
+                0, 0, 1, 0,
+                0, 0, worldScale, focalLength
+        );
+    }
+
+    public Matrix4 mul(Matrix4 o) {
+        return new Matrix4(
+                m00 * o.m00 + m01 * o.m10 + m02 * o.m20 + m03 * o.m30,
+                m00 * o.m01 + m01 * o.m11 + m02 * o.m21 + m03 * o.m31,
+                m00 * o.m02 + m01 * o.m12 + m02 * o.m22 + m03 * o.m32,
+                m00 * o.m03 + m01 * o.m13 + m02 * o.m23 + m03 * o.m33,
+
+                m10 * o.m00 + m11 * o.m10 + m12 * o.m20 + m13 * o.m30,
+                m10 * o.m01 + m11 * o.m11 + m12 * o.m21 + m13 * o.m31,
+                m10 * o.m02 + m11 * o.m12 + m12 * o.m22 + m13 * o.m32,
+                m10 * o.m03 + m11 * o.m13 + m12 * o.m23 + m13 * o.m33,
+
+                m20 * o.m00 + m21 * o.m10 + m22 * o.m20 + m23 * o.m30,
+                m20 * o.m01 + m21 * o.m11 + m22 * o.m21 + m23 * o.m31,
+                m20 * o.m02 + m21 * o.m12 + m22 * o.m22 + m23 * o.m32,
+                m20 * o.m03 + m21 * o.m13 + m22 * o.m23 + m23 * o.m33,
+
+                m30 * o.m00 + m31 * o.m10 + m32 * o.m20 + m33 * o.m30,
+                m30 * o.m01 + m31 * o.m11 + m32 * o.m21 + m33 * o.m31,
+                m30 * o.m02 + m31 * o.m12 + m32 * o.m22 + m33 * o.m32,
+                m30 * o.m03 + m31 * o.m13 + m32 * o.m23 + m33 * o.m33
+        );
+    }
+
+    /**
+     * Writes this matrix times a row major 3x4 affine transform (bottom row 0, 0, 0, 1 implied)
+     * into {@code dest} as 16 row major floats
+     */
+    public void mulAffine(float[] affine, int affineOffset, float[] dest, int destOffset) {
+        mulAffineRow(m00, m01, m02, m03, affine, affineOffset, dest, destOffset);
+        mulAffineRow(m10, m11, m12, m13, affine, affineOffset, dest, destOffset + 4);
+        mulAffineRow(m20, m21, m22, m23, affine, affineOffset, dest, destOffset + 8);
+        mulAffineRow(m30, m31, m32, m33, affine, affineOffset, dest, destOffset + 12);
+    }
+
+    private static void mulAffineRow(float r0, float r1, float r2, float r3, float[] a, int o, float[] dest, int d) {
+        dest[d] = r0 * a[o] + r1 * a[o + 4] + r2 * a[o + 8];
+        dest[d + 1] = r0 * a[o + 1] + r1 * a[o + 5] + r2 * a[o + 9];
+        dest[d + 2] = r0 * a[o + 2] + r1 * a[o + 6] + r2 * a[o + 10];
+        dest[d + 3] = r0 * a[o + 3] + r1 * a[o + 7] + r2 * a[o + 11] + r3;
+    }
+
+    /**
+     * Writes the 16 row major floats of this matrix into {@code dest}
+     */
+    public void writeTo(float[] dest, int offset) {
+        dest[offset] = m00; dest[offset + 1] = m01; dest[offset + 2] = m02; dest[offset + 3] = m03;
+        dest[offset + 4] = m10; dest[offset + 5] = m11; dest[offset + 6] = m12; dest[offset + 7] = m13;
+        dest[offset + 8] = m20; dest[offset + 9] = m21; dest[offset + 10] = m22; dest[offset + 11] = m23;
+        dest[offset + 12] = m30; dest[offset + 13] = m31; dest[offset + 14] = m32; dest[offset + 15] = m33;
+    }
+}
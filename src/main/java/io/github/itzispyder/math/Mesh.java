@@ -0,0 +1,136 @@
+package io.github.itzispyder.math;
+
+import java.util.Arrays;
+
+/**
+ * Immutable geometry recorded once and drawn any number of times through
+ * {@link VertexBuffer#instance(Mesh, Matrix, float, float, float, int)}.
+ * Same layout as a {@link VertexBuffer}, positions are in the mesh's own local space.
+ * An indexed mesh draws {@code vertices[indices[i]]} for every element i instead of the vertices in order,
+ * so shared corners are stored and projected once, see {@link MeshOptimizer}.
+ */
+public class Mesh {
+
+    private final float[] xs, ys, zs;
+    private final int[] colors;
+    private final int vertexCount;
+    private final int[] indices; // null if not indexed
+    private final int size;
+    private final int[] modeStarts; // element positions
+    private final byte[] modeFormats;
+    private final int modeCount;
+    private final Box bounds;
+
+    /**
+     * Copies the plain vertices of {@code source}, instances recorded in it are not included
+     */
+    public Mesh(VertexBuffer source) {
+        this.size = this.vertexCount = source.getSize();
+        this.xs = Arrays.copyOf(source.getXArray(), size);
+        this.ys = Arrays.copyOf(source.getYArray(), size);
+        this.zs = Arrays.copyOf(source.getZArray(), size);
+        this.colors = Arrays.copyOf(source.getColorArray(), size);
+        this.indices = null;
+
+        this.modeCount = source.getModeCount();
+        this.modeStarts = new int[modeCount];
+        this.modeFormats = new byte[modeCount];
+        for (int i = 0; i < modeCount; i++) {
+            modeStarts[i] = source.getModeStart(i);
+            modeFormats[i] = (byte) source.getModeFormat(i).ordinal();
+        }
+        this.bounds = source.computeBounds();
+    }
+
+    /**
+     * Takes ownership of the arrays
+     */
+    Mesh(float[] xs, float[] ys, float[] zs, int[] colors, int vertexCount, int[] indices, int size,
+         int[] modeStarts, byte[] modeFormats, int modeCount, Box bounds) {
+        this.xs = xs;
+        this.ys = ys;
+        this.zs = zs;
+        this.colors = colors;
+        this.vertexCount = vertexCount;
+        this.indices = indices;
+        this.size = size;
+        this.modeStarts = modeStarts;
+        this.modeFormats = modeFormats;
+        this.modeCount = modeCount;
+        this.bounds = bounds;
+    }
+
+    /**
+     * @return a welded, indexed copy without duplicate line segments
+     */
+    public Mesh optimized() {
+        return MeshOptimizer.optimize(this);
+    }
+
+    /**
+     * @return vertices drawn, the number of elements for an indexed mesh
+     */
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * @return vertices stored, smaller than {@link #getSize()} once shared vertices are welded
+     */
+    public int getVertexCount() {
+        return vertexCount;
+    }
+
+    public boolean isIndexed() {
+        return indices != null;
+    }
+
+    /**
+     * @return vertex index of every element, or null if the mesh is not indexed
+     */
+    public int[] getIndexArray() {
+        return indices;
+    }
+
+    /**
+     * @return vertex drawn as the given element
+     */
+    public int getVertexIndex(int element) {
+        return indices == null ? element : indices[element];
+    }
+
+    public float[] getXArray() {
+        return xs;
+    }
+
+    public float[] getYArray() {
+        return ys;
+    }
+
+    public float[] getZArray() {
+        return zs;
+    }
+
+    public int[] getColorArray() {
+        return colors;
+    }
+
+    public int getModeCount() {
+        return modeCount;
+    }
+
+    public int getModeStart(int mode) {
+        return modeStarts[mode];
+    }
+
+    public VertexFormat getModeFormat(int mode) {
+        return VertexFormat.byOrdinal(modeFormats[mode]);
+    }
+
+    /**
+     * @return local space bounds, or null if the mesh is empty
+     */
+    public Box getBounds() {
+        return bounds;
+    }
+}
@@ -0,0 +1,128 @@
+package io.github.itzispyder.math;
+
+import java.util.Arrays;
+
+/**
+ * Turns recorded geometry into an indexed {@link Mesh}. Vertices with the exact same position and color are welded
+ * into one, then line segments that became degenerate or repeat an earlier segment (in either direction) are dropped.
+ * Other formats are only welded, strips and loops keep every vertex so they stay connected.
+ * The draw order of whatever is kept does not change.
+ */
+public class MeshOptimizer {
+
+    public static Mesh optimize(Mesh mesh) {
+        int vertexCount = mesh.getVertexCount();
+        float[] xs = mesh.getXArray(), ys = mesh.getYArray(), zs = mesh.getZArray();
+        int[] colors = mesh.getColorArray();
+
+        // weld, open addressing over the unique vertices found so far, 0 is an empty slot
+        int[] remap = new int[vertexCount];
+        int[] table = new int[tableSize(vertexCount)];
+        int mask = table.length - 1;
+        float[] ux = new float[vertexCount], uy = new float[vertexCount], uz = new float[vertexCount];
+        int[] uc = new int[vertexCount];
+        int unique = 0;
+
+        for (int v = 0; v < vertexCount; v++) {
+            int bx = Float.floatToIntBits(xs[v]), by = Float.floatToIntBits(ys[v]), bz = Float.floatToIntBits(zs[v]);
+            int slot = mix(((bx * 31 + by) * 31 + bz) * 31 + colors[v]) & mask;
+
+            while (true) {
+                int u = table[slot] - 1;
+                if (u < 0) {
+                    u = unique++;
+                    ux[u] = xs[v];
+                    uy[u] = ys[v];
+                    uz[u] = zs[v];
+                    uc[u] = colors[v];
+                    table[slot] = u + 1;
+                    remap[v] = u;
+                    break;
+                }
+                if (Float.floatToIntBits(ux[u]) == bx && Float.floatToIntBits(uy[u]) == by
+                        && Float.floatToIntBits(uz[u]) == bz && uc[u] == colors[v]) {
+                    remap[v] = u;
+                    break;
+                }
+                slot = (slot + 1) & mask;
+            }
+        }
+
+        // elements, dropping repeated segments, keyed by (lower index, higher index)
+        int size = mesh.getSize();
+        int[] indices = new int[size];
+        long[] segments = new long[tableSize(size / 2)];
+        long segmentMask = segments.length - 1;
+        int[] modeStarts = new int[mesh.getModeCount() + 1]; // plus the lines before the first mode
+        byte[] modeFormats = new byte[modeStarts.length];
+        int modeCount = 0, count = 0;
+
+        VertexFormat format = VertexFormat.LINES;
+        for (int index = 0, mode = 0, runEnd; index < size; index = runEnd) {
+            while (mode < mesh.getModeCount() && mesh.getModeStart(mode) <= index)
+                format = mesh.getModeFormat(mode++);
+            runEnd = mode < mesh.getModeCount() ? mesh.getModeStart(mode) : size;
+
+            if (modeCount > 0 && modeStarts[modeCount - 1] == count)
+                modeCount--; // previous run lost every primitive
+            if (format.isConnected() || modeCount == 0 || modeFormats[modeCount - 1] != format.ordinal()) {
+                modeStarts[modeCount] = count;
+                modeFormats[modeCount++] = (byte) format.ordinal();
+            }
+
+            if (format.isConnected()) {
+                for (int i = index; i < runEnd; i++)
+                    indices[count++] = remap[mesh.getVertexIndex(i)];
+                continue;
+            }
+            int usable = index + (runEnd - index) / format.count * format.count;
+            for (int prim = index; prim < usable; prim += format.count) {
+                if (format == VertexFormat.LINES) {
+                    int a = remap[mesh.getVertexIndex(prim)], b = remap[mesh.getVertexIndex(prim + 1)];
+                    if (a == b)
+                        continue;
+                    long key = ((long) Math.min(a, b) << 32 | Math.max(a, b)) + 1; // never 0, the empty slot
+                    if (!insert(segments, segmentMask, key))
+                        continue;
+                    indices[count++] = a;
+                    indices[count++] = b;
+                }
+                else {
+                    for (int i = 0; i < format.count; i++)
+                        indices[count++] = remap[mesh.getVertexIndex(prim + i)];
+                }
+            }
+        }
+        if (modeCount > 0 && modeStarts[modeCount - 1] == count)
+            modeCount--;
+
+        return new Mesh(
+                Arrays.copyOf(ux, unique), Arrays.copyOf(uy, unique), Arrays.copyOf(uz, unique), Arrays.copyOf(uc, unique), unique,
+                Arrays.copyOf(indices, count), count,
+                Arrays.copyOf(modeStarts, modeCount), Arrays.copyOf(modeFormats, modeCount), modeCount,
+                mesh.getBounds());
+    }
+
+    /**
+     * @return false if the key was already in the set
+     */
+    private static boolean insert(long[] table, long mask, long key) {
+        int slot = (int) (mix((int) (key ^ (key >>> 32))) & mask);
+        while (table[slot] != 0) {
+            if (table[slot] == key)
+                return false;
+            slot = (int) ((slot + 1) & mask);
+        }
+        table[slot] = key;
+        return true;
+    }
+
+    private static int tableSize(int entries) {
+        return Integer.highestOneBit(Math.max(entries, 8) * 2 - 1) << 1;
+    }
+
+    private static int mix(int h) {
+        h *= 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
@@ -0,0 +1,125 @@
+package io.github.itzispyder.math;
+
+import io.github.itzispyder.util.Mth;
+
+/**
+ * Allocation free counterpart of {@link Vector} for hot paths. Every operation writes into this vector
+ * and returns it for chaining, so keep instances owned by whoever is using them and never share them.
+ */
+public class MutableVector {
+
+    public float x, y, z;
+
+    public MutableVector(float x, float y, float z) {
+        this.x = x;
+        this.y = y;
+        this.z = z;
+    }
+
+    public MutableVector(Vector v) {
+        this(v.x, v.y, v.z);
+    }
+
+    public MutableVector() {
+        this(0, 0, 0);
+    }
+
+    public MutableVector set(float x, float y, float z) {
+        this.x = x;
+        this.y = y;
+        this.z = z;
+        return this;
+    }
+
+    public MutableVector set(Vector v) {
+        return set(v.x, v.y, v.z);
+    }
+
+    public MutableVector set(MutableVector v) {
+        return set(v.x, v.y, v.z);
+    }
+
+    /**
+     * Same as {@link Vector#polar2vector()}
+     * @return (pitch, yaw) ==> (x, y, z)
+     */
+    public MutableVector setPolar(float pitch, float yaw) {
+        float cosPitch = Mth.cos(pitch);
+        return set(Mth.cos(yaw) * cosPitch, Mth.sin(pitch), Mth.sin(yaw) * cosPitch);
+    }
+
+    /**
+     * Same as transforming by {@link Matrix#ROT_Y(float)}
+     */
+    public MutableVector rotateY(float theta) {
+        float cos = Mth.cos(theta), sin = Mth.sin(theta);
+        return set(cos * x - sin * z, y, sin * x + cos * z);
+    }
+
+    public MutableVector add(float x, float y, float z) {
+        return set(this.x + x, this.y + y, this.z + z);
+    }
+
+    public MutableVector add(Vector v) {
+        return add(v.x, v.y, v.z);
+    }
+
+    public MutableVector add(MutableVector v) {
+        return add(v.x, v.y, v.z);
+    }
+
+    public MutableVector sub(float x, float y, float z) {
+        return set(this.x - x, this.y - y, this.z - z);
+    }
+
+    public MutableVector sub(Vector v) {
+        return sub(v.x, v.y, v.z);
+    }
+
+    public MutableVector sub(MutableVector v) {
+        return sub(v.x, v.y, v.z);
+    }
+
+    public MutableVector mul(float v) {
+        return set(x * v, y * v, z * v);
+    }
+
+    /**
+     * Same as {@link Mth#lerp(Vector, Vector, float)}
+     */
+    public MutableVector lerp(Vector a, Vector b, float delta) {
+        return set(
+                a.x + (b.x - a.x) * delta,
+                a.y + (b.y - a.y) * delta,
+                a.z + (b.z - a.z) * delta);
+    }
+
+    public MutableVector normalize() {
+        float length = length();
+        return set(x / length, y / length, z / length);
+    }
+
+    public float lengthSquared() {
+        return x * x + y * y + z * z;
+    }
+
+    public float length() {
+        return (float) Math.sqrt(this.lengthSquared());
+    }
+
+    public float dot(MutableVector v) {
+        return x * v.x + y * v.y + z * v.z;
+    }
+
+    /**
+     * @return an immutable copy, for handing the value over to code outside the hot path
+     */
+    public Vector toVector() {
+        return new Vector(x, y, z);
+    }
+
+    @Override
+    public String toString() {
+        return "<" + x + ", " + y + ", " + z + ">";
+    }
+}
@@ -0,0 +1,27 @@
+package io.github.itzispyder.math;
+
+/**
+ * Receives screen space primitives from {@link VertexBuffer#drawTo(Camera, PrimitiveSink, float)}
+ */
+public interface PrimitiveSink {
+
+    void line(int x1, int y1, int x2, int y2, int color);
+
+    /**
+     * The point arrays are reused between calls, copy them if they need to be kept
+     */
+    void quad(int[] xPoints, int[] yPoints, int color);
+
+    /**
+     * Same as {@link #quad(int[], int[], int)} with three points
+     */
+    void triangle(int[] xPoints, int[] yPoints, int color);
+
+    /**
+     * Connected line segments through {@code count} points from {@code offset} onwards, at least two
+     */
+    default void polyline(int[] xPoints, int[] yPoints, int offset, int count, int color) {
+        for (int i = offset; i + 1 < offset + count; i++)
+            line(xPoints[i], yPoints[i], xPoints[i + 1], yPoints[i + 1], color);
+    }
+}
@@ -0,0 +1,92 @@
+package io.github.itzispyder.math;
+
+import io.github.itzispyder.util.Mth;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Shared latitude/longitude wireframes of the unit sphere, built once per tessellation level.
+ * A mesh is a flat (x, y, z) array of points, {@code 2 * level} pitch arcs of {@code level + 1} points drawn as strips,
+ * followed by {@code level} yaw rings of {@code 2 * level} points drawn as loops,
+ * the same shape {@link Vector#polar2vector()} traces out.
+ */
+public class SphereMesh {
+
+    public static final int MAX_LEVEL = 32;
+
+    // built on first use from any recording thread, the atomic arrays publish them fully built
+    private static final AtomicReferenceArray<float[]> CACHE = new AtomicReferenceArray<>(MAX_LEVEL + 1);
+    private static final AtomicReferenceArray<Mesh> MESHES = new AtomicReferenceArray<>(MAX_LEVEL + 1);
+
+    /**
+     * @param level segments per half turn, the sphere gets {@code 2 * level} meridians and {@code level} bands
+     */
+    public static float[] unit(int level) {
+        float[] mesh = CACHE.get(level);
+        if (mesh == null) {
+            float[] built = build(level);
+            mesh = CACHE.compareAndExchange(level, null, built);
+            if (mesh == null)
+                mesh = built;
+        }
+        return mesh;
+    }
+
+    /**
+     * Same sphere as {@link #unit(int)} as a white {@link Mesh}, for {@link VertexBuffer#instance(Mesh, Matrix, float, float, float)}
+     */
+    public static Mesh mesh(int level) {
+        Mesh mesh = MESHES.get(level);
+        if (mesh == null) {
+            VertexBuffer buf = new VertexBuffer(getVertexCount(level));
+            buildVertices(buf, level, 0, 0, 0, 1, 0xFFFFFFFF);
+            Mesh built = buf.toMesh().optimized();
+            mesh = MESHES.compareAndExchange(level, null, built);
+            if (mesh == null)
+                mesh = built;
+        }
+        return mesh;
+    }
+
+    public static int getVertexCount(int level) {
+        return 4 * level * level + 2 * level;
+    }
+
+    private static float[] build(int level) {
+        float dTheta = Mth.PI / level;
+        float[] mesh = new float[getVertexCount(level) * 3];
+        int n = 0;
+
+        for (int pitch = 0; pitch < 2 * level; pitch++)
+            for (int yaw = 0; yaw <= level; yaw++)
+                n = putPoint(mesh, n, pitch * dTheta, yaw * dTheta);
+        for (int yaw = 0; yaw < level; yaw++)
+            for (int pitch = 0; pitch < 2 * level; pitch++)
+                n = putPoint(mesh, n, pitch * dTheta, yaw * dTheta);
+        return mesh;
+    }
+
+    private static int putPoint(float[] dest, int i, float pitch, float yaw) {
+        float cosPitch = Mth.cos(pitch);
+        dest[i] = Mth.cos(yaw) * cosPitch;
+        dest[i + 1] = Mth.sin(pitch);
+        dest[i + 2] = Mth.sin(yaw) * cosPitch;
+        return i + 3;
+    }
+
+    /**
+     * Emits the unit sphere scaled by {@code radius} and moved to (x, y, z)
+     */
+    public static void buildVertices(VertexBuffer buf, int level, float x, float y, float z, float radius, int color) {
+        float[] mesh = unit(level);
+        buf.ensureCapacity(buf.getSize() + mesh.length / 3);
+        int arcs = 3 * 2 * level * (level + 1);
+
+        for (int i = 0; i < mesh.length; i += 3) {
+            if (i < arcs ? i % (3 * (level + 1)) == 0 : (i - arcs) % (3 * 2 * level) == 0)
+                buf.swap(i < arcs ? VertexFormat.LINE_STRIP : VertexFormat.LINE_LOOP);
+            buf.vertex(x + mesh[i] * radius, y + mesh[i + 1] * radius, z + mesh[i + 2] * radius, color);
+        }
+        buf.swap(VertexFormat.LINES);
+    }
+}
@@ -0,0 +1,35 @@
+package io.github.itzispyder.math;
+
+import jdk.incubator.vector.FloatVector;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * {@link BatchMath} on top of the incubating Vector API, only ever loaded reflectively by {@link BatchMath#get()}
+ * so the rest of the game still runs when the module is missing. Leftovers past the last full vector go through
+ * the scalar loop.
+ */
+class VectorBatchMath extends BatchMath {
+
+    private static final VectorSpecies<Float> SPECIES = FloatVector.SPECIES_PREFERRED;
+
+    @Override
+    public void project(float[] m, int mOffset, float[] xs, float[] ys, float[] zs, int from,
+                        float[] outX, float[] outY, float[] outW, int outFrom, int count) {
+        float m00 = m[mOffset], m01 = m[mOffset + 1], m02 = m[mOffset + 2], m03 = m[mOffset + 3];
+        float m10 = m[mOffset + 4], m11 = m[mOffset + 5], m12 = m[mOffset + 6], m13 = m[mOffset + 7];
+        float m30 = m[mOffset + 12], m31 = m[mOffset + 13], m32 = m[mOffset + 14], m33 = m[mOffset + 15];
+
+        int i = 0;
+        for (int bound = SPECIES.loopBound(count); i < bound; i += SPECIES.length()) {
+            FloatVector x = FloatVector.fromArray(SPECIES, xs, from + i);
+            FloatVector y = FloatVector.fromArray(SPECIES, ys, from + i);
+            FloatVector z = FloatVector.fromArray(SPECIES, zs, from + i);
+
+            FloatVector w = x.mul(m30).add(y.mul(m31)).add(z.mul(m32)).add(m33);
+            x.mul(m00).add(y.mul(m01)).add(z.mul(m02)).add(m03).div(w).intoArray(outX, outFrom + i);
+            x.mul(m10).add(y.mul(m11)).add(z.mul(m12)).add(m13).div(w).intoArray(outY, outFrom + i);
+            w.intoArray(outW, outFrom + i);
+        }
+        super.project(m, mOffset, xs, ys, zs, from + i, outX, outY, outW, outFrom + i, count - i);
+    }
+}
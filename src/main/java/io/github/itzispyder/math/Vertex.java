@@ -1,6 +1,6 @@
 package io.github.itzispyder.math;
 
-public non-sealed class Vertex extends Vector implements VertexBufferEntry {
+public class Vertex extends Vector {
 
     public final int color;
 
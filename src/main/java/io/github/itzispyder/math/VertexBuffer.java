@@ -1,41 +1,183 @@
 package io.github.itzispyder.math;
 
-import io.github.itzispyder.util.Mth;
-
 import java.awt.*;
+import java.util.Arrays;
 
+/**
+ * Struct-of-arrays vertex storage. Positions and colors live in primitive arrays,
+ * and mode switches are kept as a separate (start index, format) stream instead of
+ * marker entries, so recording a frame does not allocate.
+ * Instances of a {@link Mesh} are recorded as a single entry each and only expanded by the {@link VertexTransformer}.
+ */
 public class VertexBuffer {
 
-    private final VertexBufferEntry[] buffer;
+    private float[] xs, ys, zs;
+    private int[] colors;
     private int size;
 
+    // mode stream, modeFormats[i] applies to every vertex from modeStarts[i] onwards
+    private int[] modeStarts;
+    private byte[] modeFormats;
+    private int modeCount;
+
+    // instances, each drawn right before the vertex at instanceAt[i]
+    private Mesh[] instanceMeshes;
+    private float[] instanceTransforms; // 3x4 affine, row major
+    private int[] instanceAt, instanceColors;
+    private boolean[] instanceTinted;
+    private int instanceCount;
+
+    private Graphics2DSink graphicsSink;
+    private VertexTransformer transformer;
+
     public VertexBuffer(int capacity) {
-        this.buffer = new VertexBufferEntry[capacity];
+        this.xs = new float[capacity];
+        this.ys = new float[capacity];
+        this.zs = new float[capacity];
+        this.colors = new int[capacity];
+        this.modeStarts = new int[16];
+        this.modeFormats = new byte[16];
+        this.instanceMeshes = new Mesh[16];
+        this.instanceTransforms = new float[16 * 12];
+        this.instanceAt = new int[16];
+        this.instanceColors = new int[16];
+        this.instanceTinted = new boolean[16];
     }
 
-    public void vertex(Vertex vertex) {
-        if (vertex != null)
-            buffer[size++] = vertex;
+    public void vertex(float x, float y, float z, int color) {
+        if (size == xs.length)
+            ensureCapacity(size + 1);
+        xs[size] = x;
+        ys[size] = y;
+        zs[size] = z;
+        colors[size] = color;
+        size++;
     }
 
-    public VertexBufferEntry fetch(int index) {
-        return buffer[index];
+    public void vertex(float x, float y, float z) {
+        this.vertex(x, y, z, 0xFFFFFFFF);
     }
 
-    public void swap(VertexFormat format) {
-        download(format);
+    public void vertex(Vertex vertex) {
+        if (vertex != null)
+            this.vertex(vertex.x, vertex.y, vertex.z, vertex.color);
     }
 
     public void vertex(Vector vertex) {
-        this.vertex(new Vertex(vertex.x, vertex.y, vertex.z));
+        this.vertex(vertex.x, vertex.y, vertex.z, 0xFFFFFFFF);
     }
 
     public void vertex(Vector vertex, int color) {
-        this.vertex(new Vertex(vertex.x, vertex.y, vertex.z, color));
+        this.vertex(vertex.x, vertex.y, vertex.z, color);
+    }
+
+    public void vertex(MutableVector vertex) {
+        this.vertex(vertex.x, vertex.y, vertex.z, 0xFFFFFFFF);
+    }
+
+    public void vertex(MutableVector vertex, int color) {
+        this.vertex(vertex.x, vertex.y, vertex.z, color);
+    }
+
+    /**
+     * Grows the buffer to hold at least {@code capacity} vertices, it never shrinks
+     */
+    public void ensureCapacity(int capacity) {
+        if (capacity <= xs.length)
+            return;
+        capacity = Math.max(capacity, xs.length * 2);
+        xs = Arrays.copyOf(xs, capacity);
+        ys = Arrays.copyOf(ys, capacity);
+        zs = Arrays.copyOf(zs, capacity);
+        colors = Arrays.copyOf(colors, capacity);
+    }
+
+    /**
+     * Draws {@code mesh} with its own colors, moved to (x, y, z)
+     */
+    public void instance(Mesh mesh, float x, float y, float z) {
+        this.instance(mesh, Matrix.IDENTITY, x, y, z, 0, false);
+    }
+
+    /**
+     * Draws {@code mesh} with its own colors, transformed by {@code transform} then moved to (x, y, z)
+     */
+    public void instance(Mesh mesh, Matrix transform, float x, float y, float z) {
+        this.instance(mesh, transform, x, y, z, 0, false);
+    }
+
+    /**
+     * Draws {@code mesh} entirely in {@code color}, transformed by {@code transform} then moved to (x, y, z)
+     */
+    public void instance(Mesh mesh, Matrix transform, float x, float y, float z, int color) {
+        this.instance(mesh, transform, x, y, z, color, true);
+    }
+
+    /**
+     * Same as {@link #instance(Mesh, Matrix, float, float, float, int)} with the transform given row by row,
+     * for callers that build a new transform every frame
+     */
+    public void instance(Mesh mesh, float mx0, float mx1, float mx2, float my0, float my1, float my2, float mz0, float mz1, float mz2,
+                         float x, float y, float z, int color) {
+        int o = this.instance(mesh, color, true);
+        float[] t = instanceTransforms;
+        t[o] = mx0; t[o + 1] = mx1; t[o + 2] = mx2; t[o + 3] = x;
+        t[o + 4] = my0; t[o + 5] = my1; t[o + 6] = my2; t[o + 7] = y;
+        t[o + 8] = mz0; t[o + 9] = mz1; t[o + 10] = mz2; t[o + 11] = z;
+    }
+
+    private void instance(Mesh mesh, Matrix m, float x, float y, float z, int color, boolean tinted) {
+        int o = this.instance(mesh, color, tinted);
+        float[] t = instanceTransforms;
+        t[o] = m.mx0; t[o + 1] = m.mx1; t[o + 2] = m.mx2; t[o + 3] = x;
+        t[o + 4] = m.my0; t[o + 5] = m.my1; t[o + 6] = m.my2; t[o + 7] = y;
+        t[o + 8] = m.mz0; t[o + 9] = m.mz1; t[o + 10] = m.mz2; t[o + 11] = z;
+    }
+
+    /**
+     * @return offset of the new instance's transform
+     */
+    private int instance(Mesh mesh, int color, boolean tinted) {
+        if (instanceCount == instanceAt.length)
+            growInstances(instanceCount * 2);
+
+        int i = instanceCount++;
+        instanceMeshes[i] = mesh;
+        instanceAt[i] = size;
+        instanceColors[i] = color;
+        instanceTinted[i] = tinted;
+        return i * 12;
+    }
+
+    private void growInstances(int capacity) {
+        instanceMeshes = Arrays.copyOf(instanceMeshes, capacity);
+        instanceTransforms = Arrays.copyOf(instanceTransforms, capacity * 12);
+        instanceAt = Arrays.copyOf(instanceAt, capacity);
+        instanceColors = Arrays.copyOf(instanceColors, capacity);
+        instanceTinted = Arrays.copyOf(instanceTinted, capacity);
+    }
+
+    /**
+     * Vertices from here on are drawn as {@code format}, {@link VertexFormat#LINES} until the first swap.
+     * Every swap to a connected format starts a new strip or loop, even if the format does not change.
+     * Recorders that swap away from lines swap back when they are done, everything else assumes lines.
+     */
+    public void swap(VertexFormat format) {
+        download(size, format);
     }
 
     public void clear() {
         size = 0;
+        modeCount = 0;
+        Arrays.fill(instanceMeshes, 0, instanceCount, null);
+        instanceCount = 0;
+    }
+
+    /**
+     * @return an immutable copy of the plain vertices recorded so far
+     */
+    public Mesh toMesh() {
+        return new Mesh(this);
     }
 
     public int getSize() {
@@ -43,93 +185,175 @@ public class VertexBuffer {
     }
 
     public int getCapacity() {
-        return buffer.length;
+        return xs.length;
+    }
+
+    public float getX(int index) {
+        return xs[index];
+    }
+
+    public float getY(int index) {
+        return ys[index];
+    }
+
+    public float getZ(int index) {
+        return zs[index];
+    }
+
+    public int getColor(int index) {
+        return colors[index];
     }
 
-    public VertexBufferEntry[] getArray() {
-        return buffer;
+    public float[] getXArray() {
+        return xs;
     }
 
-    private void download(VertexBufferEntry entry) {
-        if (entry != null)
-            buffer[size++] = entry;
+    public float[] getYArray() {
+        return ys;
+    }
+
+    public float[] getZArray() {
+        return zs;
+    }
+
+    public int[] getColorArray() {
+        return colors;
+    }
+
+    public int getInstanceCount() {
+        return instanceCount;
+    }
+
+    public Mesh getInstanceMesh(int instance) {
+        return instanceMeshes[instance];
+    }
+
+    /**
+     * @return index of the vertex the instance is drawn in front of
+     */
+    public int getInstanceAt(int instance) {
+        return instanceAt[instance];
+    }
+
+    /**
+     * @return 12 floats per instance, a row major 3x4 affine transform from mesh space to world space
+     */
+    public float[] getInstanceTransformArray() {
+        return instanceTransforms;
+    }
+
+    public boolean isInstanceTinted(int instance) {
+        return instanceTinted[instance];
+    }
+
+    public int getInstanceColor(int instance) {
+        return instanceColors[instance];
+    }
+
+    /**
+     * @return vertex count with every instance expanded
+     */
+    public int getExpandedSize() {
+        int total = size;
+        for (int i = 0; i < instanceCount; i++)
+            total += instanceMeshes[i].getSize();
+        return total;
+    }
+
+    /**
+     * @return bounds of every vertex in this buffer, or null if it is empty
+     */
+    public Box computeBounds() {
+        if (size == 0)
+            return null;
+
+        float minX = xs[0], minY = ys[0], minZ = zs[0];
+        float maxX = minX, maxY = minY, maxZ = minZ;
+        for (int i = 1; i < size; i++) {
+            minX = Math.min(minX, xs[i]);
+            minY = Math.min(minY, ys[i]);
+            minZ = Math.min(minZ, zs[i]);
+            maxX = Math.max(maxX, xs[i]);
+            maxY = Math.max(maxY, ys[i]);
+            maxZ = Math.max(maxZ, zs[i]);
+        }
+        return new Box(minX, minY, minZ, maxX, maxY, maxZ);
+    }
+
+    public int getModeCount() {
+        return modeCount;
+    }
+
+    public int getModeStart(int mode) {
+        return modeStarts[mode];
+    }
+
+    public VertexFormat getModeFormat(int mode) {
+        return VertexFormat.byOrdinal(modeFormats[mode]);
+    }
+
+    private void download(int start, VertexFormat format) {
+        if (modeCount > 0 && modeStarts[modeCount - 1] == start)
+            modeCount--; // previous run was empty
+        int current = modeCount > 0 ? modeFormats[modeCount - 1] : VertexFormat.LINES.ordinal();
+        if (!format.isConnected() && current == format.ordinal())
+            return;
+
+        if (modeCount == modeStarts.length) {
+            modeStarts = Arrays.copyOf(modeStarts, modeCount * 2);
+            modeFormats = Arrays.copyOf(modeFormats, modeCount * 2);
+        }
+        modeStarts[modeCount] = start;
+        modeFormats[modeCount] = (byte) format.ordinal();
+        modeCount++;
     }
 
     public void uploadTo(VertexBuffer dest) {
-        for (int i = 0; i < size; i++)
-            dest.download(buffer[i]);
+        int offset = dest.size;
+        dest.ensureCapacity(offset + size);
+        System.arraycopy(xs, 0, dest.xs, offset, size);
+        System.arraycopy(ys, 0, dest.ys, offset, size);
+        System.arraycopy(zs, 0, dest.zs, offset, size);
+        System.arraycopy(colors, 0, dest.colors, offset, size);
+
+        if (size > 0 && (modeCount == 0 || modeStarts[0] > 0))
+            dest.download(offset, VertexFormat.LINES); // the lines before the first swap
+        for (int i = 0; i < modeCount; i++)
+            dest.download(offset + modeStarts[i], VertexFormat.byOrdinal(modeFormats[i]));
+
+        if (dest.instanceCount + instanceCount > dest.instanceAt.length)
+            dest.growInstances(Math.max(dest.instanceCount + instanceCount, dest.instanceAt.length * 2));
+        for (int i = 0; i < instanceCount; i++) {
+            int j = dest.instanceCount++;
+            dest.instanceMeshes[j] = instanceMeshes[i];
+            dest.instanceAt[j] = offset + instanceAt[i];
+            dest.instanceColors[j] = instanceColors[i];
+            dest.instanceTinted[j] = instanceTinted[i];
+            System.arraycopy(instanceTransforms, i * 12, dest.instanceTransforms, j * 12, 12);
+        }
+        dest.size += size;
     }
 
     public void drawTo(Camera camera, Graphics graphics, float tickDelta) {
-        Graphics2D context = (Graphics2D) graphics;
-        context.setColor(Color.WHITE);
-
-        Vector position = Mth.lerp(camera.prevPosition, camera.position, tickDelta).add(0, camera.height, 0);
-        Matrix rotation = Matrix.rotationFirstPerson(camera, tickDelta);
-        float focalLength = Mth.lerp(camera.focalLength, camera.focalLength - 0.069F, camera.fovAnimator.getProgressClamped());
-
-        Vector v1, v2;
-        int index = 0;
-        VertexFormat currFormat = VertexFormat.LINES;
-        int[] xPoints = new int[4], yPoints = new int[4];
-
-        while (index < size) {
-            if (buffer[index] instanceof VertexFormat f) {
-                currFormat = f;
-                index++;
-                continue;
-            }
-
-            int color = ((Vertex) buffer[index]).color;
-            int a = color >> 24 & 0xFF;
-            int r = color >> 16 & 0xFF;
-            int g = color >> 8 & 0xFF;
-            int b = color & 0xFF;
-            context.setColor(new Color(r, g, b, a));
-
-            switch (currFormat) {
-                case LINES -> {
-                    v1 = (Vertex) buffer[index++];
-                    v2 = (Vertex) buffer[index++];
-                    v1 = rotation.transform(v1.sub(position));
-                    v2 = rotation.transform(v2.sub(position));
-
-                    if (v1.z < 0 || v2.z < 0)
-                        continue;
-
-                    v1 = camera.projectTransformedViewSpace(v1, focalLength);
-                    v2 = camera.projectTransformedViewSpace(v2, focalLength);
-                    context.drawLine((int)v1.x, (int)v1.y, (int)v2.x, (int)v2.y);
-                }
-                case QUADS -> {
-                    Vector v3, v4;
-                    v1 = (Vertex) buffer[index++];
-                    v2 = (Vertex) buffer[index++];
-                    v3 = (Vertex) buffer[index++];
-                    v4 = (Vertex) buffer[index++];
-                    v1 = rotation.transform(v1.sub(position));
-                    v2 = rotation.transform(v2.sub(position));
-                    v3 = rotation.transform(v3.sub(position));
-                    v4 = rotation.transform(v4.sub(position));
-
-                    if (v1.z < 0 || v2.z < 0 || v3.z < 0 || v4.z < 0)
-                        continue;
-
-                    v1 = camera.projectTransformedViewSpace(v1, focalLength);
-                    v2 = camera.projectTransformedViewSpace(v2, focalLength);
-                    v3 = camera.projectTransformedViewSpace(v3, focalLength);
-                    v4 = camera.projectTransformedViewSpace(v4, focalLength);
-                    xPoints[0] = (int)v1.x;
-                    xPoints[1] = (int)v2.x;
-                    xPoints[2] = (int)v3.x;
-                    xPoints[3] = (int)v4.x;
-                    yPoints[0] = (int)v1.y;
-                    yPoints[1] = (int)v2.y;
-                    yPoints[2] = (int)v3.y;
-                    yPoints[3] = (int)v4.y;
-                    context.fillPolygon(xPoints, yPoints, 4);
-                }
-            }
-        }
+        this.drawTo(camera.view(tickDelta), graphics);
+    }
+
+    public void drawTo(Camera camera, PrimitiveSink sink, float tickDelta) {
+        this.drawTo(camera.view(tickDelta), sink);
+    }
+
+    public void drawTo(CameraView view, Graphics graphics) {
+        if (graphicsSink == null)
+            graphicsSink = new Graphics2DSink();
+        graphicsSink.setContext((Graphics2D) graphics);
+        this.drawTo(view, graphicsSink);
+        graphicsSink.flush();
+    }
+
+    public void drawTo(CameraView view, PrimitiveSink sink) {
+        if (transformer == null)
+            transformer = new VertexTransformer();
+        transformer.transform(this, view);
+        transformer.drawTo(sink);
     }
 }
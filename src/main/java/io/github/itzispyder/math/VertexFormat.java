@@ -1,13 +1,55 @@
 package io.github.itzispyder.math;
 
-public enum VertexFormat implements VertexBufferEntry {
+public enum VertexFormat {
 
-    LINES(2),
-    QUADS(4);
+    LINES(2, 2, false),
+    QUADS(4, 4, false),
+    LINE_STRIP(2, 1, false),
+    LINE_LOOP(2, 1, true),
+    TRIANGLES(3, 3, false);
 
+    private static final VertexFormat[] VALUES = values();
+
+    /**
+     * Vertices per primitive
+     */
     public final int count;
 
-    VertexFormat(int count) {
+    /**
+     * Vertices between the first vertices of consecutive primitives, less than {@link #count} if primitives share vertices
+     */
+    public final int stride;
+
+    /**
+     * Whether the last primitive wraps around to the first vertex of the run
+     */
+    public final boolean closed;
+
+    VertexFormat(int count, int stride, boolean closed) {
         this.count = count;
+        this.stride = stride;
+        this.closed = closed;
+    }
+
+    /**
+     * Connected formats draw one shape per run, so runs of them are never merged
+     */
+    public boolean isConnected() {
+        return stride < count;
+    }
+
+    /**
+     * @return primitives drawn from a run of {@code vertices} vertices
+     */
+    public int getPrimitiveCount(int vertices) {
+        if (vertices < count)
+            return 0;
+        if (closed && vertices > count)
+            return vertices;
+        return (vertices - count) / stride + 1;
+    }
+
+    public static VertexFormat byOrdinal(int ordinal) {
+        return VALUES[ordinal];
     }
 }
@@ -0,0 +1,343 @@
+package io.github.itzispyder.math;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Vertex stage of the pipeline. Moves a whole {@link VertexBuffer} into screen space in parallel chunks,
+ * then hands the projected primitives to whichever {@link PrimitiveSink} is drawing the frame.
+ * Mesh instances are expanded here, projected straight from mesh space into output slots past the plain vertices.
+ * Vertices are projected first, then primitive chunks decide which of their primitives are behind the camera,
+ * so an indexed mesh only projects each of its vertices once however many primitives share them.
+ */
+public class VertexTransformer {
+
+    public static final int CHUNK_SIZE = 16 * 1024;
+
+    private static final int PLAIN = -1;
+
+    private final ForkJoinPool pool;
+    private float[] screenX, screenY, clipW;
+    private boolean[] culled; // indexed by cull base + position of the first vertex of each primitive
+
+    // projection jobs, count vertices of the source starting at sourceStart land in slots from outStart
+    private int[] jobSources, jobSourceStarts, jobOutStarts, jobCounts;
+    private int jobs;
+
+    // primitive chunks, positions are in the source's own order (elements for indexed meshes),
+    // the vertex drawn at position p sits in slot base + p, or base + indices[p] when indexed.
+    // Chunks list the first position of each of their primitives, the run bounds let loops wrap around
+    private int[] chunkStarts, chunkEnds, chunkRunStarts, chunkRunEnds, chunkSources, chunkBases, chunkCullBases;
+    private byte[] chunkFormats;
+    private int chunks;
+
+    // 16 row major floats each, the view-projection followed by one model-view-projection per instance
+    private float[] matrices;
+    private int outputSize;
+
+    private VertexBuffer source;
+    private CameraView view;
+    private final int[] xPoints = new int[4], yPoints = new int[4];
+    private int[] polylineX = new int[64], polylineY = new int[64];
+
+    public VertexTransformer(ForkJoinPool pool) {
+        this.pool = pool;
+        this.screenX = new float[0];
+        this.screenY = new float[0];
+        this.clipW = new float[0];
+        this.culled = new boolean[0];
+        this.jobSources = new int[16];
+        this.jobSourceStarts = new int[16];
+        this.jobOutStarts = new int[16];
+        this.jobCounts = new int[16];
+        this.chunkStarts = new int[16];
+        this.chunkEnds = new int[16];
+        this.chunkRunStarts = new int[16];
+        this.chunkRunEnds = new int[16];
+        this.chunkSources = new int[16];
+        this.chunkBases = new int[16];
+        this.chunkCullBases = new int[16];
+        this.chunkFormats = new byte[16];
+        this.matrices = new float[16];
+    }
+
+    public VertexTransformer() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    public void transform(VertexBuffer buf, CameraView view) {
+        this.source = buf;
+        this.view = view;
+
+        this.buildChunks(buf);
+        if (screenX.length < outputSize) {
+            int capacity = Math.max(outputSize, buf.getCapacity());
+            screenX = new float[capacity];
+            screenY = new float[capacity];
+            clipW = new float[capacity];
+            culled = new boolean[capacity];
+        }
+
+        if (outputSize <= CHUNK_SIZE) {
+            projectJobs(0, jobs);
+            cullChunks(0, chunks);
+        }
+        else {
+            pool.invoke(new ProjectTask(0, jobs));
+            pool.invoke(new CullTask(0, chunks));
+        }
+    }
+
+    private void buildChunks(VertexBuffer buf) {
+        jobs = chunks = 0;
+        outputSize = buf.getSize();
+
+        int instances = buf.getInstanceCount();
+        if (matrices.length < 16 * (instances + 1))
+            matrices = new float[16 * (instances + 1) * 2];
+        view.viewProjection.writeTo(matrices, 0);
+
+        int mode = 0;
+        int cursor = 0;
+        int runStart = 0;
+        VertexFormat format = VertexFormat.LINES;
+
+        for (int k = 0; k <= instances; k++) {
+            int stop = k < instances ? buf.getInstanceAt(k) : buf.getSize();
+
+            // an instance can land inside a strip, the primitives starting before it are drawn before it
+            addJobs(PLAIN, cursor, cursor, stop - cursor);
+            for (int index = cursor, to; index < stop; index = to) {
+                while (mode < buf.getModeCount() && buf.getModeStart(mode) <= index) {
+                    runStart = buf.getModeStart(mode);
+                    format = buf.getModeFormat(mode++);
+                }
+                int runEnd = mode < buf.getModeCount() ? buf.getModeStart(mode) : buf.getSize();
+                to = Math.min(runEnd, stop);
+                addRun(runStart, runEnd, index, to, format, PLAIN, 0, 0);
+            }
+            cursor = stop;
+
+            if (k < instances) {
+                view.viewProjection.mulAffine(buf.getInstanceTransformArray(), 12 * k, matrices, 16 * (k + 1));
+                addInstance(buf.getInstanceMesh(k), k);
+            }
+        }
+    }
+
+    private void addInstance(Mesh mesh, int instance) {
+        int base = outputSize;
+        int cullBase = mesh.isIndexed() ? base + mesh.getVertexCount() : base;
+        addJobs(instance, 0, base, mesh.getVertexCount());
+        outputSize = cullBase + mesh.getSize();
+
+        int size = mesh.getSize();
+        int mode = 0;
+        VertexFormat format = VertexFormat.LINES;
+        for (int index = 0, runEnd; index < size; index = runEnd) {
+            while (mode < mesh.getModeCount() && mesh.getModeStart(mode) <= index)
+                format = mesh.getModeFormat(mode++);
+            runEnd = mode < mesh.getModeCount() ? mesh.getModeStart(mode) : size;
+            addRun(index, runEnd, index, runEnd, format, instance, base, cullBase);
+        }
+    }
+
+    private void addJobs(int source, int sourceStart, int outStart, int count) {
+        for (int done = 0; done < count; done += CHUNK_SIZE) {
+            if (jobs == jobSources.length) {
+                jobSources = Arrays.copyOf(jobSources, jobs * 2);
+                jobSourceStarts = Arrays.copyOf(jobSourceStarts, jobs * 2);
+                jobOutStarts = Arrays.copyOf(jobOutStarts, jobs * 2);
+                jobCounts = Arrays.copyOf(jobCounts, jobs * 2);
+            }
+            jobSources[jobs] = source;
+            jobSourceStarts[jobs] = sourceStart + done;
+            jobOutStarts[jobs] = outStart + done;
+            jobCounts[jobs] = Math.min(CHUNK_SIZE, count - done);
+            jobs++;
+        }
+    }
+
+    /**
+     * Adds the primitives of the run [runStart, runEnd) whose first vertex is in [from, to)
+     */
+    private void addRun(int runStart, int runEnd, int from, int to, VertexFormat format, int source, int base, int cullBase) {
+        int stride = format.stride;
+        int first = (from - runStart + stride - 1) / stride;
+        int last = Math.min(format.getPrimitiveCount(runEnd - runStart), (to - runStart + stride - 1) / stride);
+        int step = CHUNK_SIZE / format.count;
+        for (int prim = first; prim < last; prim += step) {
+            addChunk(runStart + prim * stride, runStart + Math.min(prim + step, last) * stride,
+                    runStart, runEnd, format, source, base, cullBase);
+        }
+    }
+
+    private void addChunk(int start, int end, int runStart, int runEnd, VertexFormat format, int source, int base, int cullBase) {
+        if (chunks == chunkStarts.length) {
+            chunkStarts = Arrays.copyOf(chunkStarts, chunks * 2);
+            chunkEnds = Arrays.copyOf(chunkEnds, chunks * 2);
+            chunkRunStarts = Arrays.copyOf(chunkRunStarts, chunks * 2);
+            chunkRunEnds = Arrays.copyOf(chunkRunEnds, chunks * 2);
+            chunkSources = Arrays.copyOf(chunkSources, chunks * 2);
+            chunkBases = Arrays.copyOf(chunkBases, chunks * 2);
+            chunkCullBases = Arrays.copyOf(chunkCullBases, chunks * 2);
+            chunkFormats = Arrays.copyOf(chunkFormats, chunks * 2);
+        }
+        chunkStarts[chunks] = start;
+        chunkEnds[chunks] = end;
+        chunkRunStarts[chunks] = runStart;
+        chunkRunEnds[chunks] = runEnd;
+        chunkSources[chunks] = source;
+        chunkBases[chunks] = base;
+        chunkCullBases[chunks] = cullBase;
+        chunkFormats[chunks] = (byte) format.ordinal();
+        chunks++;
+    }
+
+    private void projectJobs(int from, int to) {
+        BatchMath math = BatchMath.get();
+
+        for (int j = from; j < to; j++) {
+            int instance = jobSources[j];
+            if (instance == PLAIN) {
+                math.project(matrices, 0, source.getXArray(), source.getYArray(), source.getZArray(), jobSourceStarts[j],
+                        screenX, screenY, clipW, jobOutStarts[j], jobCounts[j]);
+            }
+            else {
+                Mesh mesh = source.getInstanceMesh(instance);
+                math.project(matrices, 16 * (instance + 1), mesh.getXArray(), mesh.getYArray(), mesh.getZArray(), jobSourceStarts[j],
+                        screenX, screenY, clipW, jobOutStarts[j], jobCounts[j]);
+            }
+        }
+    }
+
+    private void cullChunks(int from, int to) {
+        for (int c = from; c < to; c++) {
+            VertexFormat format = VertexFormat.byOrdinal(chunkFormats[c]);
+            int base = chunkBases[c], cullBase = chunkCullBases[c];
+            int runStart = chunkRunStarts[c], runEnd = chunkRunEnds[c];
+            int[] indices = chunkSources[c] == PLAIN ? null : source.getInstanceMesh(chunkSources[c]).getIndexArray();
+
+            for (int prim = chunkStarts[c]; prim < chunkEnds[c]; prim += format.stride) {
+                boolean behind = false;
+                for (int i = 0; i < format.count; i++) {
+                    int position = prim + i < runEnd ? prim + i : runStart;
+                    behind |= view.isBehind(clipW[base + (indices == null ? position : indices[position])]);
+                }
+                culled[cullBase + prim] = behind;
+            }
+        }
+    }
+
+    /**
+     * Emits every primitive from the last {@link #transform(VertexBuffer, CameraView)} that is in front of the camera,
+     * instances in the spot they were recorded at. Unbroken stretches of a strip or loop in one color go out as one polyline.
+     */
+    public void drawTo(PrimitiveSink sink) {
+        for (int c = 0; c < chunks; c++) {
+            VertexFormat format = VertexFormat.byOrdinal(chunkFormats[c]);
+            int instance = chunkSources[c];
+            int base = chunkBases[c], cullBase = chunkCullBases[c];
+            int runStart = chunkRunStarts[c], runEnd = chunkRunEnds[c];
+
+            Mesh mesh = instance == PLAIN ? null : source.getInstanceMesh(instance);
+            int[] colors = mesh == null ? source.getColorArray() : mesh.getColorArray();
+            int[] indices = mesh == null ? null : mesh.getIndexArray();
+            boolean tinted = mesh != null && source.isInstanceTinted(instance);
+            int tint = tinted ? source.getInstanceColor(instance) : 0;
+            int polyline = 0, polylineColor = 0;
+
+            for (int prim = chunkStarts[c]; prim < chunkEnds[c]; prim += format.stride) {
+                if (culled[cullBase + prim]) {
+                    polyline = endPolyline(sink, polyline, polylineColor);
+                    continue;
+                }
+
+                for (int i = 0; i < format.count; i++) {
+                    int position = prim + i < runEnd ? prim + i : runStart;
+                    int slot = base + (indices == null ? position : indices[position]);
+                    xPoints[i] = (int) screenX[slot];
+                    yPoints[i] = (int) screenY[slot];
+                }
+                int color = tinted ? tint : colors[indices == null ? prim : indices[prim]];
+                switch (format) {
+                    case LINES -> sink.line(xPoints[0], yPoints[0], xPoints[1], yPoints[1], color);
+                    case QUADS -> sink.quad(xPoints, yPoints, color);
+                    case TRIANGLES -> sink.triangle(xPoints, yPoints, color);
+                    case LINE_STRIP, LINE_LOOP -> {
+                        if (polyline > 0 && color != polylineColor)
+                            polyline = endPolyline(sink, polyline, polylineColor);
+                        if (polyline == 0) {
+                            polylineColor = color;
+                            polyline = polylinePoint(polyline, xPoints[0], yPoints[0]);
+                        }
+                        polyline = polylinePoint(polyline, xPoints[1], yPoints[1]);
+                    }
+                }
+            }
+            endPolyline(sink, polyline, polylineColor);
+        }
+    }
+
+    private int polylinePoint(int count, int x, int y) {
+        if (count == polylineX.length) {
+            polylineX = Arrays.copyOf(polylineX, count * 2);
+            polylineY = Arrays.copyOf(polylineY, count * 2);
+        }
+        polylineX[count] = x;
+        polylineY[count] = y;
+        return count + 1;
+    }
+
+    /**
+     * @return the point count of the next polyline
+     */
+    private int endPolyline(PrimitiveSink sink, int count, int color) {
+        if (count > 0)
+            sink.polyline(polylineX, polylineY, 0, count, color);
+        return 0;
+    }
+
+    @SuppressWarnings("serial") // fork/join tasks are never serialized
+    private class ProjectTask extends RecursiveAction {
+
+        private final int from, to;
+
+        private ProjectTask(int from, int to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= 1) {
+                projectJobs(from, to);
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new ProjectTask(from, mid), new ProjectTask(mid, to));
+        }
+    }
+
+    @SuppressWarnings("serial")
+    private class CullTask extends RecursiveAction {
+
+        private final int from, to;
+
+        private CullTask(int from, int to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= 1) {
+                cullChunks(from, to);
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new CullTask(from, mid), new CullTask(mid, to));
+        }
+    }
+}
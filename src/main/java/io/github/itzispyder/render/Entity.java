@@ -1,5 +1,7 @@
 package io.github.itzispyder.render;
 
+import io.github.itzispyder.math.Box;
+import io.github.itzispyder.math.MutableVector;
 import io.github.itzispyder.math.Vector;
 import io.github.itzispyder.math.VertexBuffer;
 import io.github.itzispyder.util.Mth;
@@ -8,6 +10,9 @@ public abstract class Entity {
 
     public Vector position, velocity;
     private Vector prevPosition;
+    int slot = -1; // index in the world's entity array, -1 while not in a world
+    boolean removed;
+    int detail = -1; // level of detail picked last frame, only touched by the render thread
 
     public Entity(Vector position) {
         this.position = position;
@@ -20,7 +25,50 @@ public abstract class Entity {
     }
 
 
-    public abstract void render(VertexBuffer buf, float tickDelta);
+    /**
+     * Called on the render thread, everything that changes between ticks must be read from {@code state}
+     */
+    public abstract void render(VertexBuffer buf, EntityState state, float tickDelta);
+
+    /**
+     * Draws at a reduced level of detail, only called with {@code detail > 0} if {@link #getDetailLevels()} allows it
+     */
+    public void render(VertexBuffer buf, EntityState state, float tickDelta, int detail) {
+        this.render(buf, state, tickDelta);
+    }
+
+    /**
+     * @return how many levels of detail this entity has, entities with more than one must have bounds
+     */
+    public int getDetailLevels() {
+        return 1;
+    }
+
+    /**
+     * @return vertices emitted at the given level of detail
+     */
+    public int getVertexCount(int detail) {
+        return 0;
+    }
+
+    /**
+     * World space bounds of what {@link #render(VertexBuffer, EntityState, float)} emits, used for culling
+     * @return null if the entity should never be culled
+     */
+    public Box getBoundingBox(EntityState state, float tickDelta) {
+        return null;
+    }
+
+    /**
+     * Called on the tick thread at the end of every tick
+     * @param reuse state captured into the same snapshot slot last time, refilled instead of allocating if it fits, may be null
+     */
+    public EntityState captureState(EntityState reuse) {
+        if (reuse == null || reuse.getClass() != EntityState.class)
+            return new EntityState(this, prevPosition, position);
+        reuse.set(this, prevPosition, position);
+        return reuse;
+    }
 
     public void onTick() {
         prevPosition = position;
@@ -34,6 +82,10 @@ public abstract class Entity {
         return Mth.lerp(prevPosition, position, tickDelta);
     }
 
+    public MutableVector getPosition(float tickDelta, MutableVector dest) {
+        return dest.lerp(prevPosition, position, tickDelta);
+    }
+
     public void setPosition(Vector position) {
         this.position = position;
     }
@@ -46,6 +98,13 @@ public abstract class Entity {
         this.velocity = velocity;
     }
 
+    /**
+     * @return true once removal has been requested, even if the world has not applied it yet
+     */
+    public boolean isRemoved() {
+        return removed;
+    }
+
     public Vector getPrevPosition() {
         return prevPosition;
     }
@@ -0,0 +1,36 @@
+package io.github.itzispyder.render;
+
+import io.github.itzispyder.math.MutableVector;
+import io.github.itzispyder.math.Vector;
+import io.github.itzispyder.util.Mth;
+
+/**
+ * Copy of what an {@link Entity} needs to be drawn, taken at the end of a tick. A state belongs to one
+ * {@link RenderSnapshot} and is refilled when that snapshot is captured again, never while it is being drawn.
+ * Entities with more render state than their position extend this.
+ */
+public class EntityState {
+
+    public Entity entity;
+    public Vector prevPosition, position;
+
+    public EntityState(Entity entity, Vector prevPosition, Vector position) {
+        this.entity = entity;
+        this.prevPosition = prevPosition;
+        this.position = position;
+    }
+
+    protected void set(Entity entity, Vector prevPosition, Vector position) {
+        this.entity = entity;
+        this.prevPosition = prevPosition;
+        this.position = position;
+    }
+
+    public Vector getPosition(float tickDelta) {
+        return Mth.lerp(prevPosition, position, tickDelta);
+    }
+
+    public MutableVector getPosition(float tickDelta, MutableVector dest) {
+        return dest.lerp(prevPosition, position, tickDelta);
+    }
+}
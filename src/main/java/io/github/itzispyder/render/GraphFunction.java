@@ -1,19 +1,35 @@
 package io.github.itzispyder.render;
 
+import io.github.itzispyder.math.Box;
+import io.github.itzispyder.math.Mesh;
+import io.github.itzispyder.math.MutableVector;
 import io.github.itzispyder.math.Vector;
 import io.github.itzispyder.math.VertexBuffer;
+import io.github.itzispyder.render.terrain.HeightField;
+import io.github.itzispyder.render.terrain.Terrain;
 
-import java.util.function.BiFunction;
+import java.util.function.DoubleBinaryOperator;
 
-public class GraphFunction extends Entity {
+/**
+ * A height function drawn over a fixed rectangle. The function is sampled once into a {@link HeightField},
+ * which both the mesh and height or normal queries are built from.
+ */
+public class GraphFunction extends Entity implements Terrain {
 
     public static final int SEA_LEVEL = -256;
 
-    private final VertexBuffer buf;
-    private final BiFunction<Double, Double, Double> f;
+    private final Mesh mesh;
+    private final DoubleBinaryOperator f;
+    private final HeightField heightField;
     private final int minX, minZ, maxX, maxZ;
+    private final Box bounds;
 
-    public GraphFunction(Vector position, int minX, int minZ, int maxX, int maxZ, double step, BiFunction<Double, Double, Double> f, int color) {
+    /**
+     * Evaluates the function on every query instead of interpolating the samples, for checking results against
+     */
+    public boolean exact;
+
+    public GraphFunction(Vector position, int minX, int minZ, int maxX, int maxZ, double step, DoubleBinaryOperator f, int color) {
         super(position);
         this.f = f;
         this.minX = minX;
@@ -23,30 +39,13 @@ public class GraphFunction extends Entity {
 
         int wid = (int) Math.ceil((maxX - minX) / step);
         int len = (int) Math.ceil((maxZ - minZ) / step);
+        HeightField h = this.heightField = new HeightField(minX, minZ, step, wid, len, f);
+
+        VertexBuffer buf = new VertexBuffer(wid * len * 4 + wid + len);
+        h.buildVertices(buf, position.x, position.y, position.z, color, true);
 
-        int bufLen = wid * len * 8;
-        buf = new VertexBuffer(bufLen);
-
-        for (int i = 0; i <= wid; i++) {
-            double x = minX + (i * step);
-            for (int j = 0; j < len; j++) {
-                double z = minZ + (j * step);
-                double nextZ = minZ + ((j + 1) * step);
-
-                buf.vertex(position.add(x, f.apply(x, z), z), color);
-                buf.vertex(position.add(x, f.apply(x, nextZ), nextZ), color);
-            }
-        }
-        for (int j = 0; j <= len; j++) {
-            double z = minZ + (j * step);
-            for (int i = 0; i < wid; i++) {
-                double x = minX + (i * step);
-                double nextX = minX + ((i + 1) * step);
-
-                buf.vertex(position.add(x, f.apply(x, z), z), color);
-                buf.vertex(position.add(nextX, f.apply(nextX, z), z), color);
-            }
-        }
+        mesh = buf.toMesh().optimized();
+        bounds = mesh.getBounds();
 
 //        for (float x = minX; x <= maxX; x = (float) (x + step)) {
 //            for (float z = minZ; z <= maxZ; z = (float) (z + step)) {
@@ -58,21 +57,47 @@ public class GraphFunction extends Entity {
 //        }
     }
 
+    @Override
     public float getHeightAt(double worldX, double worldZ) {
         double localX = worldX - position.x;
         double localZ = worldZ - position.z;
 
         if (localX < minX || localX > maxX || localZ < minZ || localZ > maxZ)
             return SEA_LEVEL;
-        return f.apply(localX, localZ).floatValue();
+        if (exact)
+            return (float) f.applyAsDouble(localX, localZ);
+        return heightField.getHeight((float) localX, (float) localZ);
     }
 
-    public Vector getGraphAt(Vector pos) {
-        return new Vector(pos.x, getHeightAt(pos.x, pos.z), pos.z);
+    @Override
+    public MutableVector getNormalAt(double worldX, double worldZ, MutableVector dest) {
+        if (exact)
+            return Terrain.super.getNormalAt(worldX, worldZ, dest);
+
+        double localX = worldX - position.x;
+        double localZ = worldZ - position.z;
+        if (localX < minX || localX > maxX || localZ < minZ || localZ > maxZ)
+            return dest.set(0, 1, 0); // flat sea
+        return heightField.getNormal((float) localX, (float) localZ, dest);
+    }
+
+    @Override
+    public void attach(WorldManager world) {
+        world.addEntity(this);
+    }
+
+    @Override
+    public void detach(WorldManager world) {
+        world.removeEntity(this);
+    }
+
+    @Override
+    public void render(VertexBuffer buf, EntityState state, float tickDelta) {
+        buf.instance(mesh, 0, 0, 0);
     }
 
     @Override
-    public void render(VertexBuffer buf, float tickDelta) {
-        this.buf.uploadTo(buf);
+    public Box getBoundingBox(EntityState state, float tickDelta) {
+        return bounds;
     }
 }
@@ -0,0 +1,93 @@
+package io.github.itzispyder.render;
+
+import io.github.itzispyder.math.CameraView;
+import io.github.itzispyder.math.Vector;
+
+/**
+ * Picks how detailed something is drawn from its distance to the camera and its projected size on screen.
+ * Level 0 is full detail, each threshold passed drops one level. Thresholds are widened by {@link #hysteresis}
+ * around the level that was picked last frame, so objects sitting right at a threshold do not pop back and forth.
+ * Only used on the render thread.
+ */
+public class LevelOfDetail {
+
+    /**
+     * Projected radius in pixels below which level {@code i + 1} is used instead of level {@code i}
+     */
+    public float[] sizeThresholds = {48, 16, 6};
+
+    /**
+     * Distance to the camera past which level {@code i + 1} is used instead of level {@code i}
+     */
+    public float[] distanceThresholds = {128, 256, 384};
+
+    /**
+     * Fraction a threshold is moved by before the level picked last frame is given up
+     */
+    public float hysteresis = 0.15F;
+
+    public volatile boolean enabled = true; // toggled from the event thread
+
+    private CameraView view;
+    private float pixelScale, apexZ;
+    private int verticesDrawn, verticesSaved;
+
+    /**
+     * Called once per frame before anything is selected, resets the counters
+     */
+    public void begin(CameraView view) {
+        this.view = view;
+        this.pixelScale = view.focalLength / CameraView.DEPTH_SCALE;
+        this.apexZ = view.focalLength / view.getWorldScale();
+        this.verticesDrawn = verticesSaved = 0;
+    }
+
+    /**
+     * @param levels how many levels the object has
+     * @param previous level picked for the same object last frame, or -1 if there is none
+     */
+    public int select(float x, float y, float z, float radius, int levels, int previous) {
+        if (!enabled || levels <= 1)
+            return 0;
+
+        Vector eye = view.eye;
+        float dx = x - eye.x, dy = y - eye.y, dz = z - eye.z;
+        float distance = (float) Math.sqrt(dx * dx + dy * dy + dz * dz);
+        float pixels = radius * pixelScale / (distance + apexZ);
+
+        if (previous < 0)
+            return levelFor(pixels, distance, levels);
+
+        // the finest level the object could be at if it were a bit smaller and the coarsest if it were a bit bigger
+        float h = hysteresis;
+        int finest = levelFor(pixels * (1 + h), distance * (1 - h), levels);
+        int coarsest = levelFor(pixels * (1 - h), distance * (1 + h), levels);
+        return Math.max(finest, Math.min(coarsest, previous));
+    }
+
+    private int levelFor(float pixels, float distance, int levels) {
+        int level = 0;
+        int max = Math.min(levels - 1, Math.min(sizeThresholds.length, distanceThresholds.length));
+        while (level < max && (pixels < sizeThresholds[level] || distance > distanceThresholds[level]))
+            level++;
+        return level;
+    }
+
+    /**
+     * Counts something drawn at reduced detail, entities are recorded from several threads so tally first and call this once
+     * @param fullVertices vertices it has at level 0
+     * @param drawnVertices vertices it was actually drawn with
+     */
+    public synchronized void record(int fullVertices, int drawnVertices) {
+        verticesDrawn += drawnVertices;
+        verticesSaved += fullVertices - drawnVertices;
+    }
+
+    public int getVerticesDrawn() {
+        return verticesDrawn;
+    }
+
+    public int getVerticesSaved() {
+        return verticesSaved;
+    }
+}
@@ -0,0 +1,20 @@
+package io.github.itzispyder.render;
+
+public enum RenderBackend {
+
+    GRAPHICS_2D("Graphics2D"),
+    RASTERIZER("Rasterizer"),
+    TILED_RASTERIZER("Tiled Rasterizer");
+
+    private static final RenderBackend[] VALUES = values();
+
+    public final String name;
+
+    RenderBackend(String name) {
+        this.name = name;
+    }
+
+    public RenderBackend next() {
+        return VALUES[(ordinal() + 1) % VALUES.length];
+    }
+}
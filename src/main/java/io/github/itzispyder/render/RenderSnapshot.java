@@ -0,0 +1,48 @@
+package io.github.itzispyder.render;
+
+import io.github.itzispyder.math.CameraState;
+
+import java.util.Arrays;
+
+/**
+ * Everything the render thread needs from one tick. Filled by the tick thread, then handed over through
+ * a {@link io.github.itzispyder.util.TripleBuffer} and never modified while the render thread owns it.
+ */
+public class RenderSnapshot {
+
+    private EntityState[] entities;
+    private int entityCount;
+    private CameraState camera;
+
+    public RenderSnapshot() {
+        this.entities = new EntityState[64];
+    }
+
+    void capture(Entity[] source, int count, CameraState camera) {
+        if (entities.length < count)
+            entities = Arrays.copyOf(entities, Math.max(count, entities.length * 2));
+
+        // the states of the last capture into this snapshot are refilled, the render thread is done with them
+        for (int i = 0; i < count; i++)
+            entities[i] = source[i].captureState(entities[i]);
+        Arrays.fill(entities, count, Math.max(count, entityCount), null);
+
+        this.entityCount = count;
+        this.camera = camera;
+    }
+
+    public int getEntityCount() {
+        return entityCount;
+    }
+
+    public EntityState getEntity(int index) {
+        return entities[index];
+    }
+
+    /**
+     * @return null until the first snapshot has been captured
+     */
+    public CameraState getCamera() {
+        return camera;
+    }
+}
@@ -0,0 +1,116 @@
+package io.github.itzispyder.render;
+
+import java.util.Arrays;
+import java.util.function.IntPredicate;
+
+/**
+ * Uniform grid broadphase over points stored in parallel coordinate arrays, identified by their index.
+ * Cells are hashed into a flat table and indices are stored bucket by bucket, so a rebuild is two passes
+ * over the points and a query only touches the buckets its radius overlaps.
+ * Queries test against the arrays the hash was built from, so rebuild after moving points.
+ */
+public class SpatialHash {
+
+    private final float cellSize;
+    private int mask;
+    private int[] bucketStarts, bucketFill, items;
+    private float[] xs, ys, zs;
+    private int count;
+
+    public SpatialHash(float cellSize) {
+        this.cellSize = cellSize;
+        this.bucketStarts = new int[1];
+        this.bucketFill = new int[0];
+        this.items = new int[0];
+    }
+
+    public void rebuild(float[] xs, float[] ys, float[] zs, int count) {
+        int tableSize = Integer.highestOneBit(Math.max(count, 8) * 2 - 1) << 1;
+        if (bucketFill.length != tableSize) {
+            bucketStarts = new int[tableSize + 1];
+            bucketFill = new int[tableSize];
+        }
+        else {
+            Arrays.fill(bucketFill, 0);
+        }
+        if (items.length < count)
+            items = new int[Math.max(count, items.length * 2)];
+
+        this.mask = tableSize - 1;
+        this.xs = xs;
+        this.ys = ys;
+        this.zs = zs;
+        this.count = count;
+
+        // count pass
+        for (int i = 0; i < count; i++)
+            bucketFill[bucketOf(i)]++;
+
+        int total = 0;
+        for (int b = 0; b < tableSize; b++) {
+            bucketStarts[b] = total;
+            total += bucketFill[b];
+            bucketFill[b] = bucketStarts[b];
+        }
+        bucketStarts[tableSize] = total;
+
+        // fill pass
+        for (int i = 0; i < count; i++)
+            items[bucketFill[bucketOf(i)]++] = i;
+    }
+
+    /**
+     * @param filter only indices passing the filter are considered
+     * @return index of the first point within {@code radius} of (x, y, z), or -1
+     */
+    public int findFirst(float x, float y, float z, float radius, IntPredicate filter) {
+        int minX = cell(x - radius), maxX = cell(x + radius);
+        int minY = cell(y - radius), maxY = cell(y + radius);
+        int minZ = cell(z - radius), maxZ = cell(z + radius);
+
+        // more cells than buckets would visit the same buckets over and over
+        if ((long) (maxX - minX + 1) * (maxY - minY + 1) * (maxZ - minZ + 1) > mask + 1)
+            return searchRange(0, count, x, y, z, radius * radius, filter);
+
+        for (int cx = minX; cx <= maxX; cx++) {
+            for (int cy = minY; cy <= maxY; cy++) {
+                for (int cz = minZ; cz <= maxZ; cz++) {
+                    int bucket = hash(cx, cy, cz);
+                    int found = searchRange(bucketStarts[bucket], bucketStarts[bucket + 1], x, y, z, radius * radius, filter);
+                    if (found >= 0)
+                        return found;
+                }
+            }
+        }
+        return -1;
+    }
+
+    private int searchRange(int from, int to, float x, float y, float z, float radiusSquared, IntPredicate filter) {
+        for (int i = from; i < to; i++) {
+            int index = items[i];
+            float dx = xs[index] - x;
+            float dy = ys[index] - y;
+            float dz = zs[index] - z;
+            if (dx * dx + dy * dy + dz * dz <= radiusSquared && filter.test(index))
+                return index;
+        }
+        return -1;
+    }
+
+    private int cell(float coord) {
+        return (int) Math.floor(coord / cellSize);
+    }
+
+    private int bucketOf(int index) {
+        return hash(cell(xs[index]), cell(ys[index]), cell(zs[index]));
+    }
+
+    private int hash(int x, int y, int z) {
+        int h = x * 73856093 ^ y * 19349663 ^ z * 83492791;
+        return (h ^ h >>> 16) & mask;
+    }
+
+    public int getCount() {
+        return count;
+    }
+}
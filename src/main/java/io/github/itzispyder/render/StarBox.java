@@ -1,16 +1,19 @@
 package io.github.itzispyder.render;
 
+import io.github.itzispyder.math.Box;
+import io.github.itzispyder.math.Mesh;
 import io.github.itzispyder.math.Vector;
 import io.github.itzispyder.math.VertexBuffer;
 
 public class StarBox extends Entity {
 
-    private final VertexBuffer stars;
+    private final Mesh stars;
+    private final Box bounds;
 
     public StarBox() {
         super();
 
-        this.stars = new VertexBuffer(2593);
+        VertexBuffer stars = new VertexBuffer(2593);
         float radius = 1000;
 
         for (int pitch = 0; pitch < 360; pitch += 10)
@@ -19,11 +22,18 @@ public class StarBox extends Entity {
         for (int yaw = 0; yaw < 180; yaw += 10)
             for (int pitch = 0; pitch < 360; pitch += 10)
                 plot(stars, new Vector(pitch, yaw, 0).polar2vector().mul(radius));
+        this.stars = stars.toMesh();
+        this.bounds = this.stars.getBounds();
     }
 
     @Override
-    public void render(VertexBuffer buf, float tickDelta) {
-        stars.uploadTo(buf);
+    public void render(VertexBuffer buf, EntityState state, float tickDelta) {
+        buf.instance(stars, 0, 0, 0);
+    }
+
+    @Override
+    public Box getBoundingBox(EntityState state, float tickDelta) {
+        return bounds;
     }
 
     private void plot(VertexBuffer buf, Vector position) {
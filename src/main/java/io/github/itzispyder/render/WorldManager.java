@@ -1,40 +1,146 @@
 package io.github.itzispyder.render;
 
 import io.github.itzispyder.gameplay.AbilitiesHandler;
+import io.github.itzispyder.math.Box;
 import io.github.itzispyder.math.Camera;
+import io.github.itzispyder.math.CameraState;
+import io.github.itzispyder.math.CameraView;
+import io.github.itzispyder.math.Frustum;
 import io.github.itzispyder.math.Vector;
 import io.github.itzispyder.math.VertexBuffer;
-import io.github.itzispyder.render.entity.Missile;
+import io.github.itzispyder.render.entity.ProjectileSystem;
 import io.github.itzispyder.render.entity.Voxel;
+import io.github.itzispyder.render.terrain.Terrain;
+import io.github.itzispyder.util.TripleBuffer;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 
+import static io.github.itzispyder.Main.camera;
 import static io.github.itzispyder.Main.keyboard;
 
 public class WorldManager {
 
-    private final List<Entity> entities;
-    public GraphFunction tile;
+    public static final int ENTITIES_PER_TASK = 32;
+
+    private Entity[] entities;
+    private int entityCount;
+    private final List<Entity> pendingAdds, pendingRemovals;
+    private final TripleBuffer<RenderSnapshot> snapshots;
+    public final ProjectileSystem projectiles;
+    public final LevelOfDetail levelOfDetail;
+    public Terrain terrain;
+    public float viewDistance;
+    private int drawnEntities, culledEntities;
+
+    // render thread only, one buffer and drawn count per run of entities recorded in parallel
+    private VertexBuffer[] rangeBuffers;
+    private int[] rangeDrawn;
 
     public WorldManager() {
-        this.entities = new ArrayList<>();
+        this.entities = new Entity[64];
+        this.pendingAdds = new ArrayList<>();
+        this.pendingRemovals = new ArrayList<>();
+        this.snapshots = new TripleBuffer<>(RenderSnapshot::new);
+        this.levelOfDetail = new LevelOfDetail();
+        this.projectiles = new ProjectileSystem(levelOfDetail);
+        this.viewDistance = 512;
+        this.rangeBuffers = new VertexBuffer[0];
+        this.rangeDrawn = new int[0];
+        this.pendingAdds.add(projectiles); // joins at the first tick boundary like any other entity
     }
 
-    public void render(VertexBuffer buf, float tickDelta) {
-        Entity entity;
-        for (int i = 0; i < entities.size(); i++) {
-            entity = entities.get(i);
-            entity.render(buf, tickDelta);
+    /**
+     * Called on the render thread, only reads from the snapshot.
+     * Large worlds are recorded in parallel, every run of {@link #ENTITIES_PER_TASK} entities into its own buffer,
+     * and the buffers are appended to {@code buf} in entity order, so the frame comes out the same as a sequential walk.
+     */
+    public void render(VertexBuffer buf, RenderSnapshot snapshot, CameraView view, float tickDelta) {
+        Frustum frustum = new Frustum(view, viewDistance);
+        levelOfDetail.begin(view);
+        projectiles.setFrustum(frustum);
+
+        int count = snapshot.getEntityCount();
+        int ranges = (count + ENTITIES_PER_TASK - 1) / ENTITIES_PER_TASK;
+        if (ranges <= 1) {
+            drawnEntities = this.renderRange(buf, snapshot, frustum, tickDelta, 0, count);
+            culledEntities = count - drawnEntities;
+            this.countProjectiles();
+            return;
+        }
+
+        if (rangeBuffers.length < ranges) {
+            int capacity = Math.max(ranges, rangeBuffers.length * 2);
+            VertexBuffer[] buffers = Arrays.copyOf(rangeBuffers, capacity);
+            for (int r = rangeBuffers.length; r < capacity; r++)
+                buffers[r] = new VertexBuffer(1024);
+            rangeBuffers = buffers;
+            rangeDrawn = new int[capacity];
+        }
+        ForkJoinPool.commonPool().invoke(new RecordTask(snapshot, frustum, tickDelta, 0, ranges));
+
+        drawnEntities = 0;
+        for (int r = 0; r < ranges; r++) {
+            rangeBuffers[r].uploadTo(buf);
+            rangeBuffers[r].clear();
+            drawnEntities += rangeDrawn[r];
+        }
+        culledEntities = count - drawnEntities;
+        this.countProjectiles();
+    }
+
+    /**
+     * Projectiles are drawn as one entity but culled one by one, so their counts are added on top
+     */
+    private void countProjectiles() {
+        drawnEntities += projectiles.getDrawnProjectiles();
+        culledEntities += projectiles.getCulledProjectiles();
+    }
+
+    /**
+     * Records the entities in [from, to) of the snapshot into {@code buf}
+     * @return entities drawn
+     */
+    private int renderRange(VertexBuffer buf, RenderSnapshot snapshot, Frustum frustum, float tickDelta, int from, int to) {
+        int drawn = 0, fullVertices = 0, drawnVertices = 0;
+
+        EntityState state;
+        for (int i = from; i < to; i++) {
+            state = snapshot.getEntity(i);
+
+            Box bounds = state.entity.getBoundingBox(state, tickDelta);
+            if (bounds != null && !frustum.isVisible(bounds))
+                continue;
+            drawn++;
+
+            Entity entity = state.entity;
+            int levels = entity.getDetailLevels();
+            if (levels > 1) {
+                float x = (bounds.minX + bounds.maxX) * 0.5F, y = (bounds.minY + bounds.maxY) * 0.5F, z = (bounds.minZ + bounds.maxZ) * 0.5F;
+                entity.detail = levelOfDetail.select(x, y, z, bounds.getRadius(), levels, entity.detail);
+                fullVertices += entity.getVertexCount(0);
+                drawnVertices += entity.getVertexCount(entity.detail);
+                entity.render(buf, state, tickDelta, entity.detail);
+            }
+            else {
+                entity.render(buf, state, tickDelta);
+            }
 
 //            this.renderTileStepSelection(buf, entity, camera);
         }
 //        this.renderSelection(buf, camera.position.add(camera.getRotationVector().mul(5)));
+
+        if (fullVertices > 0)
+            levelOfDetail.record(fullVertices, drawnVertices);
+        return drawn;
     }
 
     public void renderTileStepSelection(VertexBuffer buf, Entity entity, Camera camera) {
-        if (entity instanceof GraphFunction graph)
-            Voxel.buildVertices(buf, graph.getGraphAt(camera.position), 1, 0xFF00B7FF);
+        if (entity instanceof Terrain terrain)
+            Voxel.buildVertices(buf, terrain.getGraphAt(camera.position), 1, 0xFF00B7FF);
     }
 
     public void renderSelection(VertexBuffer buf, Vector v) {
@@ -44,16 +150,19 @@ public class WorldManager {
     }
 
     public void onTick() {
-        for (int i = entities.size() - 1; i >= 0; i--) {
-            entities.get(i).onTick();
+        this.applyPendingChanges();
+
+        // adds and removes made while ticking are only queued, so the array stays put
+        for (int i = entityCount - 1; i >= 0; i--) {
+            entities[i].onTick();
         }
+        if (terrain != null)
+            terrain.onTick(this, camera.position);
 
         // spawn
         if (Math.random() < 0.05) {
             Vector spawn = Vector.ZERO.applyRandomization(20).withY(45);
-            Missile missile = new Missile(spawn);
-            missile.velocity = new Vector(0, -0.2F, 0);
-            this.addEntity(missile);
+            projectiles.spawnMissile(spawn, new Vector(0, -0.2F, 0));
         }
 
         // shoot
@@ -62,15 +171,127 @@ public class WorldManager {
         }
     }
 
-    public List<Entity> getEntities() {
-        return entities;
+    /**
+     * Called on the tick thread once the tick is over, hands the current state over to the render thread
+     */
+    public void publishSnapshot(CameraState camera) {
+        this.applyPendingChanges();
+        snapshots.getBack().capture(entities, entityCount, camera);
+        snapshots.publish();
+    }
+
+    /**
+     * Called on the render thread
+     * @return the latest published snapshot
+     */
+    public RenderSnapshot acquireSnapshot() {
+        return snapshots.acquire();
+    }
+
+    /**
+     * Detaches the current terrain and attaches the new one, called on the tick thread
+     */
+    public void setTerrain(Terrain terrain) {
+        if (this.terrain != null)
+            this.terrain.detach(this);
+        this.terrain = terrain;
+        if (terrain != null)
+            terrain.attach(this);
     }
 
+    public int getEntityCount() {
+        return entityCount;
+    }
+
+    public Entity getEntity(int index) {
+        return entities[index];
+    }
+
+    public int getDrawnEntities() {
+        return drawnEntities;
+    }
+
+    public int getCulledEntities() {
+        return culledEntities;
+    }
+
+    @SuppressWarnings("serial") // fork/join tasks are never serialized
+    private class RecordTask extends RecursiveAction {
+
+        private final RenderSnapshot snapshot;
+        private final Frustum frustum;
+        private final float tickDelta;
+        private final int from, to; // ranges of ENTITIES_PER_TASK entities
+
+        private RecordTask(RenderSnapshot snapshot, Frustum frustum, float tickDelta, int from, int to) {
+            this.snapshot = snapshot;
+            this.frustum = frustum;
+            this.tickDelta = tickDelta;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= 1) {
+                int start = from * ENTITIES_PER_TASK;
+                int end = Math.min(start + ENTITIES_PER_TASK, snapshot.getEntityCount());
+                rangeDrawn[from] = renderRange(rangeBuffers[from], snapshot, frustum, tickDelta, start, end);
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new RecordTask(snapshot, frustum, tickDelta, from, mid), new RecordTask(snapshot, frustum, tickDelta, mid, to));
+        }
+    }
+
+    /**
+     * Queued until the next tick boundary, called on the tick thread
+     */
     public void addEntity(Entity entity) {
-        entities.add(entity);
+        entity.removed = false;
+        pendingAdds.add(entity);
     }
 
+    /**
+     * Queued until the next tick boundary, called on the tick thread. Removing an entity more than once is a no-op.
+     */
     public void removeEntity(Entity entity) {
-        entities.remove(entity);
+        if (entity.removed)
+            return;
+        entity.removed = true;
+        pendingRemovals.add(entity);
+    }
+
+    /**
+     * Removes everything queued for removal in one pass that shifts the survivors down, then appends the queued adds.
+     * Entities keep their relative order, so the draw order only changes where something was added or removed.
+     */
+    private void applyPendingChanges() {
+        if (!pendingRemovals.isEmpty()) {
+            for (Entity entity : pendingRemovals)
+                entity.slot = -1; // entities that never made it into the world already are
+            pendingRemovals.clear();
+
+            int kept = 0;
+            for (int i = 0; i < entityCount; i++) {
+                Entity entity = entities[i];
+                if (entity.slot < 0)
+                    continue;
+                entity.slot = kept;
+                entities[kept++] = entity;
+            }
+            Arrays.fill(entities, kept, entityCount, null);
+            entityCount = kept;
+        }
+
+        for (Entity entity : pendingAdds) {
+            if (entity.removed || entity.slot >= 0)
+                continue;
+            if (entityCount == entities.length)
+                entities = Arrays.copyOf(entities, entityCount * 2);
+            entity.slot = entityCount;
+            entities[entityCount++] = entity;
+        }
+        pendingAdds.clear();
     }
 }
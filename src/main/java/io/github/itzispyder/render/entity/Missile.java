@@ -1,48 +1,33 @@
 package io.github.itzispyder.render.entity;
 
-import io.github.itzispyder.math.Vector;
 import io.github.itzispyder.math.VertexBuffer;
-import io.github.itzispyder.render.Entity;
+import io.github.itzispyder.math.VertexFormat;
 import io.github.itzispyder.util.Mth;
 
-import static io.github.itzispyder.Main.world;
+/**
+ * Geometry of a missile, the missiles themselves live in {@link ProjectileSystem}
+ */
+public class Missile {
 
-public class Missile extends Entity {
+    public static final int MAX_AGE = 60;
+    public static final int COLOR = 0xFFFFAAAA;
+    public static final int MAX_SIDES = 8;
+    public static final int MAX_VERTICES = 3 * MAX_SIDES;
 
-    private final float height;
-    private final int sides;
-    private int age;
-
-    public Missile(Vector position) {
-        super(position);
-        this.height = (float)(1 + Math.random() * 3);
-        this.sides = 3 + (int)(Math.random() * 6);
-    }
-
-    @Override
-    public void onTick() {
-        super.onTick();
-
-        if (age++ >= 60)
-            world.removeEntity(this);
-
-        position = position.add(velocity);
-        velocity = velocity.mul(1.067F);
-    }
-
-    @Override
-    public void render(VertexBuffer buf, float tickDelta) {
+    /**
+     * The rim is one loop, then a line from the tip to every corner of it
+     */
+    public static void buildVertices(VertexBuffer buf, float x, float y, float z, float height, int sides, int color) {
         float deltaTheta = Mth.TWO_PI / sides;
-        Vector position = this.getPosition(tickDelta);
-
-        for (float i = 0; i <= Mth.TWO_PI; i += deltaTheta) {
-            float i2 = i + deltaTheta;
 
-            buf.vertex(position, 0xFFFFAAAA);
-            buf.vertex(position.add(Mth.cos(i), height, Mth.sin(i)), 0xFFFFAAAA);
+        buf.swap(VertexFormat.LINE_LOOP);
+        for (int i = 0; i < sides; i++)
+            buf.vertex(x + Mth.cos(i * deltaTheta), y + height, z + Mth.sin(i * deltaTheta), color);
 
-            buf.vertex(position.add(Mth.cos(i), height, Mth.sin(i)), 0xFFFFAAAA);
-            buf.vertex(position.add(Mth.cos(i2), height, Mth.sin(i2)), 0xFFFFAAAA);
+        buf.swap(VertexFormat.LINES);
+        for (int i = 0; i < sides; i++) {
+            buf.vertex(x, y, z, color);
+            buf.vertex(x + Mth.cos(i * deltaTheta), y + height, z + Mth.sin(i * deltaTheta), color);
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,410 @@
+package io.github.itzispyder.render.entity;
+
+import io.github.itzispyder.math.Frustum;
+import io.github.itzispyder.math.Matrix;
+import io.github.itzispyder.math.MutableVector;
+import io.github.itzispyder.math.Vector;
+import io.github.itzispyder.math.VertexBuffer;
+import io.github.itzispyder.render.Entity;
+import io.github.itzispyder.render.EntityState;
+import io.github.itzispyder.render.LevelOfDetail;
+import io.github.itzispyder.render.SpatialHash;
+import io.github.itzispyder.render.terrain.Terrain;
+
+import java.util.Arrays;
+import java.util.function.IntPredicate;
+
+import static io.github.itzispyder.Main.world;
+
+/**
+ * Every bullet and missile in the world, kept in parallel primitive arrays and stepped in plain loops
+ * instead of as one entity each. Dead projectiles are swap-removed, so the arrays stay packed.
+ * The whole system is a single entity in the world and is drawn as one, culling and picking a level of detail per projectile.
+ */
+public class ProjectileSystem extends Entity {
+
+    public static final int SUBSTEPS = 10;
+    public static final float HIT_RADIUS = 2;
+
+    private static final byte GRAVITY = 1;
+
+    // bullets
+    private float[] bulletX, bulletY, bulletZ;
+    private float[] bulletPrevX, bulletPrevY, bulletPrevZ;
+    private float[] bulletVelX, bulletVelY, bulletVelZ;
+    private float[] bulletRadius;
+    private int[] bulletAge, bulletColor, bulletId;
+    private byte[] bulletFlags;
+    private Matrix[] bulletRotation;
+    private int bullets, nextBulletId;
+
+    // missiles
+    private float[] missileX, missileY, missileZ;
+    private float[] missilePrevX, missilePrevY, missilePrevZ;
+    private float[] missileVelX, missileVelY, missileVelZ;
+    private float[] missileHeight;
+    private int[] missileAge, missileSides;
+    private boolean[] missileDead;
+    private int missiles;
+
+    private final SpatialHash missileHash;
+    private final IntPredicate missileAlive;
+    private final MutableVector normal = new MutableVector();
+
+    // render thread, level of detail each bullet had last frame in a table indexed by bullet id
+    private final LevelOfDetail levelOfDetail;
+    private int[] detailIds, detailLevels;
+    private Frustum frustum;
+    private int drawnProjectiles, culledProjectiles;
+
+    public ProjectileSystem(LevelOfDetail levelOfDetail) {
+        this.levelOfDetail = levelOfDetail;
+        this.detailIds = new int[256];
+        this.detailLevels = new int[256];
+        this.missileHash = new SpatialHash(4);
+        this.missileAlive = i -> !missileDead[i];
+        this.allocateBullets(256);
+        this.allocateMissiles(64);
+    }
+
+    private void allocateBullets(int capacity) {
+        bulletX = resize(bulletX, capacity);
+        bulletY = resize(bulletY, capacity);
+        bulletZ = resize(bulletZ, capacity);
+        bulletPrevX = resize(bulletPrevX, capacity);
+        bulletPrevY = resize(bulletPrevY, capacity);
+        bulletPrevZ = resize(bulletPrevZ, capacity);
+        bulletVelX = resize(bulletVelX, capacity);
+        bulletVelY = resize(bulletVelY, capacity);
+        bulletVelZ = resize(bulletVelZ, capacity);
+        bulletRadius = resize(bulletRadius, capacity);
+        bulletAge = bulletAge == null ? new int[capacity] : Arrays.copyOf(bulletAge, capacity);
+        bulletColor = bulletColor == null ? new int[capacity] : Arrays.copyOf(bulletColor, capacity);
+        bulletId = bulletId == null ? new int[capacity] : Arrays.copyOf(bulletId, capacity);
+        bulletFlags = bulletFlags == null ? new byte[capacity] : Arrays.copyOf(bulletFlags, capacity);
+        bulletRotation = bulletRotation == null ? new Matrix[capacity] : Arrays.copyOf(bulletRotation, capacity);
+    }
+
+    private void allocateMissiles(int capacity) {
+        missileX = resize(missileX, capacity);
+        missileY = resize(missileY, capacity);
+        missileZ = resize(missileZ, capacity);
+        missilePrevX = resize(missilePrevX, capacity);
+        missilePrevY = resize(missilePrevY, capacity);
+        missilePrevZ = resize(missilePrevZ, capacity);
+        missileVelX = resize(missileVelX, capacity);
+        missileVelY = resize(missileVelY, capacity);
+        missileVelZ = resize(missileVelZ, capacity);
+        missileHeight = resize(missileHeight, capacity);
+        missileAge = missileAge == null ? new int[capacity] : Arrays.copyOf(missileAge, capacity);
+        missileSides = missileSides == null ? new int[capacity] : Arrays.copyOf(missileSides, capacity);
+        missileDead = missileDead == null ? new boolean[capacity] : Arrays.copyOf(missileDead, capacity);
+    }
+
+    private static float[] resize(float[] array, int capacity) {
+        return array == null ? new float[capacity] : Arrays.copyOf(array, capacity);
+    }
+
+    public void spawnBullet(Vector position, Vector velocity, Matrix rotation, float radius, int color, boolean gravity) {
+        if (bullets == bulletX.length)
+            allocateBullets(bullets * 2);
+
+        int i = bullets++;
+        bulletX[i] = bulletPrevX[i] = position.x;
+        bulletY[i] = bulletPrevY[i] = position.y;
+        bulletZ[i] = bulletPrevZ[i] = position.z;
+        bulletVelX[i] = velocity.x;
+        bulletVelY[i] = velocity.y;
+        bulletVelZ[i] = velocity.z;
+        bulletRadius[i] = radius;
+        bulletAge[i] = 0;
+        bulletColor[i] = color;
+        bulletId[i] = ++nextBulletId;
+        bulletFlags[i] = gravity ? GRAVITY : 0;
+        bulletRotation[i] = rotation;
+    }
+
+    public void spawnMissile(Vector position, Vector velocity) {
+        if (missiles == missileX.length)
+            allocateMissiles(missiles * 2);
+
+        int i = missiles++;
+        missileX[i] = missilePrevX[i] = position.x;
+        missileY[i] = missilePrevY[i] = position.y;
+        missileZ[i] = missilePrevZ[i] = position.z;
+        missileVelX[i] = velocity.x;
+        missileVelY[i] = velocity.y;
+        missileVelZ[i] = velocity.z;
+        missileHeight[i] = (float)(1 + Math.random() * 3);
+        missileSides[i] = 3 + (int)(Math.random() * (Missile.MAX_SIDES - 2));
+        missileAge[i] = 0;
+        missileDead[i] = false;
+    }
+
+    @Override
+    public void onTick() {
+        super.onTick();
+        this.tickMissiles();
+        missileHash.rebuild(missileX, missileY, missileZ, missiles);
+        this.tickBullets();
+        this.removeDeadMissiles();
+    }
+
+    private void tickMissiles() {
+        for (int i = 0; i < missiles; i++) {
+            missilePrevX[i] = missileX[i];
+            missilePrevY[i] = missileY[i];
+            missilePrevZ[i] = missileZ[i];
+
+            if (missileAge[i]++ >= Missile.MAX_AGE) {
+                missileDead[i] = true;
+                continue;
+            }
+            missileX[i] += missileVelX[i];
+            missileY[i] += missileVelY[i];
+            missileZ[i] += missileVelZ[i];
+            missileVelX[i] *= 1.067F;
+            missileVelY[i] *= 1.067F;
+            missileVelZ[i] *= 1.067F;
+        }
+    }
+
+    private void tickBullets() {
+        Terrain terrain = world.terrain;
+
+        // backwards, so a swap-remove only ever moves in a bullet that already ticked
+        for (int i = bullets - 1; i >= 0; i--) {
+            bulletPrevX[i] = bulletX[i];
+            bulletPrevY[i] = bulletY[i];
+            bulletPrevZ[i] = bulletZ[i];
+
+            if (bulletAge[i]++ >= SphereBullet.MAX_AGE) {
+                removeBullet(i);
+                continue;
+            }
+
+            float gravity = (bulletFlags[i] & GRAVITY) != 0 ? 0.001F : 0;
+            for (int step = 0; step < SUBSTEPS; step++) {
+                bulletX[i] += bulletVelX[i];
+                bulletY[i] += bulletVelY[i];
+                bulletZ[i] += bulletVelZ[i];
+                bulletVelX[i] *= 0.99F;
+                bulletVelY[i] = bulletVelY[i] * 0.99F - gravity;
+                bulletVelZ[i] *= 0.99F;
+
+                int target = missileHash.findFirst(bulletX[i], bulletY[i], bulletZ[i], HIT_RADIUS, missileAlive);
+                if (target >= 0) {
+                    missileDead[target] = true;
+                    removeBullet(i);
+                    break;
+                }
+                if (terrain != null)
+                    collideWithTerrain(i, terrain);
+            }
+        }
+    }
+
+    // future developers, the 1.5 represents 150% reflection
+    // 100% to stop the impact, and 50% to push back against the original velocity, creating a reflection
+    private void collideWithTerrain(int i, Terrain terrain) {
+        float x = bulletX[i], z = bulletZ[i];
+        float height = terrain.getHeightAt(x, z);
+        if (bulletY[i] > height)
+            return;
+
+        MutableVector normal = terrain.getNormalAt(x, z, this.normal);
+        float nx = normal.x, ny = normal.y, nz = normal.z;
+
+        float dot = bulletVelX[i] * nx + bulletVelY[i] * ny + bulletVelZ[i] * nz;
+        if (dot >= 0) // perpendicular or away from surface
+            return;
+
+        bulletVelX[i] -= nx * 1.5F * dot;
+        bulletVelY[i] -= ny * 1.5F * dot;
+        bulletVelZ[i] -= nz * 1.5F * dot;
+        bulletY[i] = height;
+    }
+
+    private void removeBullet(int i) {
+        int last = --bullets;
+        bulletX[i] = bulletX[last];
+        bulletY[i] = bulletY[last];
+        bulletZ[i] = bulletZ[last];
+        bulletPrevX[i] = bulletPrevX[last];
+        bulletPrevY[i] = bulletPrevY[last];
+        bulletPrevZ[i] = bulletPrevZ[last];
+        bulletVelX[i] = bulletVelX[last];
+        bulletVelY[i] = bulletVelY[last];
+        bulletVelZ[i] = bulletVelZ[last];
+        bulletRadius[i] = bulletRadius[last];
+        bulletAge[i] = bulletAge[last];
+        bulletColor[i] = bulletColor[last];
+        bulletId[i] = bulletId[last];
+        bulletFlags[i] = bulletFlags[last];
+        bulletRotation[i] = bulletRotation[last];
+        bulletRotation[last] = null;
+    }
+
+    private void removeDeadMissiles() {
+        for (int i = missiles - 1; i >= 0; i--) {
+            if (!missileDead[i])
+                continue;
+
+            int last = --missiles;
+            missileX[i] = missileX[last];
+            missileY[i] = missileY[last];
+            missileZ[i] = missileZ[last];
+            missilePrevX[i] = missilePrevX[last];
+            missilePrevY[i] = missilePrevY[last];
+            missilePrevZ[i] = missilePrevZ[last];
+            missileVelX[i] = missileVelX[last];
+            missileVelY[i] = missileVelY[last];
+            missileVelZ[i] = missileVelZ[last];
+            missileHeight[i] = missileHeight[last];
+            missileAge[i] = missileAge[last];
+            missileSides[i] = missileSides[last];
+            missileDead[i] = missileDead[last];
+        }
+    }
+
+    @Override
+    public void render(VertexBuffer buf, EntityState state, float tickDelta) {
+        State s = (State) state;
+        buf.ensureCapacity(buf.getSize() + s.missiles * Missile.MAX_VERTICES); // bullets are instances
+
+        if (detailIds.length < s.bullets * 2) {
+            int capacity = Integer.highestOneBit(s.bullets * 2) << 1;
+            detailIds = new int[capacity];
+            detailLevels = new int[capacity];
+        }
+        int mask = detailIds.length - 1;
+        int fullVertices = SphereBullet.getVertexCount(0);
+        int drawnVertices = 0, drawnBullets = 0;
+        drawnProjectiles = culledProjectiles = 0;
+
+        for (int i = 0; i < s.bullets; i++) {
+            float x = s.bulletPrevX[i] + (s.bulletX[i] - s.bulletPrevX[i]) * tickDelta;
+            float y = s.bulletPrevY[i] + (s.bulletY[i] - s.bulletPrevY[i]) * tickDelta;
+            float z = s.bulletPrevZ[i] + (s.bulletZ[i] - s.bulletPrevZ[i]) * tickDelta;
+            if (frustum != null && !frustum.isVisible(x, y, z, s.bulletRadius[i])) {
+                culledProjectiles++;
+                continue;
+            }
+            drawnBullets++;
+
+            // ids are sequential, so live bullets rarely share a slot, when they do one just loses its hysteresis
+            int id = s.bulletId[i], slot = id & mask;
+            int previous = detailIds[slot] == id ? detailLevels[slot] : -1;
+            int detail = levelOfDetail.select(x, y, z, s.bulletRadius[i], SphereBullet.DETAIL_LEVELS, previous);
+            detailIds[slot] = id;
+            detailLevels[slot] = detail;
+            drawnVertices += SphereBullet.getVertexCount(detail);
+
+            SphereBullet.buildVertices(buf, x, y, z, s.bulletRotation[i], s.bulletAge[i], s.bulletRadius[i], s.bulletColor[i], detail);
+        }
+        levelOfDetail.record(fullVertices * drawnBullets, drawnVertices);
+        for (int i = 0; i < s.missiles; i++) {
+            float x = s.missilePrevX[i] + (s.missileX[i] - s.missilePrevX[i]) * tickDelta;
+            float y = s.missilePrevY[i] + (s.missileY[i] - s.missilePrevY[i]) * tickDelta;
+            float z = s.missilePrevZ[i] + (s.missileZ[i] - s.missilePrevZ[i]) * tickDelta;
+
+            // rim of radius 1 at the top, tip at the bottom
+            float halfHeight = s.missileHeight[i] * 0.5F;
+            if (frustum != null && !frustum.isVisible(x, y + halfHeight, z, (float) Math.sqrt(1 + halfHeight * halfHeight))) {
+                culledProjectiles++;
+                continue;
+            }
+            Missile.buildVertices(buf, x, y, z, s.missileHeight[i], s.missileSides[i], Missile.COLOR);
+        }
+        drawnProjectiles = s.bullets + s.missiles - culledProjectiles;
+    }
+
+    @Override
+    public EntityState captureState(EntityState reuse) {
+        if (!(reuse instanceof State state) || state.entity != this)
+            return new State(this);
+        state.copy(this);
+        return state;
+    }
+
+    /**
+     * Called on the render thread, projectiles outside {@code frustum} are skipped from the next render on, null draws all of them
+     */
+    public void setFrustum(Frustum frustum) {
+        this.frustum = frustum;
+    }
+
+    public int getDrawnProjectiles() {
+        return drawnProjectiles;
+    }
+
+    public int getCulledProjectiles() {
+        return culledProjectiles;
+    }
+
+    private static class State extends EntityState {
+
+        private int bullets, missiles;
+        private float[] bulletX, bulletY, bulletZ, bulletPrevX, bulletPrevY, bulletPrevZ, bulletRadius;
+        private int[] bulletAge, bulletColor, bulletId;
+        private Matrix[] bulletRotation;
+        private float[] missileX, missileY, missileZ, missilePrevX, missilePrevY, missilePrevZ, missileHeight;
+        private int[] missileSides;
+
+        private State(ProjectileSystem system) {
+            super(system, system.getPrevPosition(), system.position);
+            this.copy(system);
+        }
+
+        /**
+         * Copies the live projectiles into this state's arrays, which only grow when the projectiles no longer fit
+         */
+        private void copy(ProjectileSystem system) {
+            this.set(system, system.getPrevPosition(), system.position);
+
+            int n = this.bullets = system.bullets;
+            this.bulletX = copy(system.bulletX, bulletX, n);
+            this.bulletY = copy(system.bulletY, bulletY, n);
+            this.bulletZ = copy(system.bulletZ, bulletZ, n);
+            this.bulletPrevX = copy(system.bulletPrevX, bulletPrevX, n);
+            this.bulletPrevY = copy(system.bulletPrevY, bulletPrevY, n);
+            this.bulletPrevZ = copy(system.bulletPrevZ, bulletPrevZ, n);
+            this.bulletRadius = copy(system.bulletRadius, bulletRadius, n);
+            this.bulletAge = copy(system.bulletAge, bulletAge, n);
+            this.bulletColor = copy(system.bulletColor, bulletColor, n);
+            this.bulletId = copy(system.bulletId, bulletId, n);
+            this.bulletRotation = copy(system.bulletRotation, bulletRotation, n);
+
+            int m = this.missiles = system.missiles;
+            this.missileX = copy(system.missileX, missileX, m);
+            this.missileY = copy(system.missileY, missileY, m);
+            this.missileZ = copy(system.missileZ, missileZ, m);
+            this.missilePrevX = copy(system.missilePrevX, missilePrevX, m);
+            this.missilePrevY = copy(system.missilePrevY, missilePrevY, m);
+            this.missilePrevZ = copy(system.missilePrevZ, missilePrevZ, m);
+            this.missileHeight = copy(system.missileHeight, missileHeight, m);
+            this.missileSides = copy(system.missileSides, missileSides, m);
+        }
+
+        private static float[] copy(float[] src, float[] dest, int n) {
+            if (dest == null || dest.length < n)
+                dest = new float[Math.max(n, dest == null ? 0 : dest.length * 2)];
+            System.arraycopy(src, 0, dest, 0, n);
+            return dest;
+        }
+
+        private static int[] copy(int[] src, int[] dest, int n) {
+            if (dest == null || dest.length < n)
+                dest = new int[Math.max(n, dest == null ? 0 : dest.length * 2)];
+            System.arraycopy(src, 0, dest, 0, n);
+            return dest;
+        }
+
+        private static Matrix[] copy(Matrix[] src, Matrix[] dest, int n) {
+            if (dest == null || dest.length < n)
+                dest = new Matrix[Math.max(n, dest == null ? 0 : dest.length * 2)];
+            System.arraycopy(src, 0, dest, 0, n);
+            return dest;
+        }
+    }
+}
@@ -1,17 +1,27 @@
 package io.github.itzispyder.render.entity;
 
+import io.github.itzispyder.math.Box;
+import io.github.itzispyder.math.Matrix;
+import io.github.itzispyder.math.SphereMesh;
 import io.github.itzispyder.math.Vector;
 import io.github.itzispyder.math.VertexBuffer;
 import io.github.itzispyder.render.Entity;
-import io.github.itzispyder.util.Mth;
+import io.github.itzispyder.render.EntityState;
 
 public class Sphere extends Entity {
 
+    public static final int MESH_LEVEL = 6;
+
+    // tessellation of each level of detail
+    public static final int[] DETAIL_MESH_LEVELS = {MESH_LEVEL, 4, 3, 2};
+
     private final float radius;
+    private final Matrix scale;
 
     public Sphere(Vector position, float radius) {
         super(position);
         this.radius = radius;
+        this.scale = Matrix.scale(radius);
     }
 
     public Sphere(float radius) {
@@ -19,20 +29,29 @@ public class Sphere extends Entity {
     }
 
     @Override
-    public void render(VertexBuffer buf, float tickDelta) {
-        float dTheta = Mth.PI / 6;
-        for (float pitch = 0; pitch < Mth.TWO_PI; pitch += dTheta) {
-            for (float yaw = 0; yaw < Mth.PI; yaw += dTheta) {
-                buf.vertex(position.add(new Vector(pitch, yaw, 0).polar2vector().mul(radius)));
-                buf.vertex(position.add(new Vector(pitch, yaw + dTheta, 0).polar2vector().mul(radius)));
-            }
-        }
-        for (float yaw = 0; yaw < Mth.PI; yaw += dTheta) {
-            for (float pitch = 0; pitch < Mth.TWO_PI; pitch += dTheta) {
-                buf.vertex(position.add(new Vector(pitch, yaw, 0).polar2vector().mul(radius)));
-                buf.vertex(position.add(new Vector(pitch + dTheta, yaw, 0).polar2vector().mul(radius)));
-            }
-        }
+    public void render(VertexBuffer buf, EntityState state, float tickDelta) {
+        this.render(buf, state, tickDelta, 0);
+    }
+
+    @Override
+    public void render(VertexBuffer buf, EntityState state, float tickDelta, int detail) {
+        Vector position = state.position;
+        buf.instance(SphereMesh.mesh(DETAIL_MESH_LEVELS[detail]), scale, position.x, position.y, position.z);
+    }
+
+    @Override
+    public int getDetailLevels() {
+        return DETAIL_MESH_LEVELS.length;
+    }
+
+    @Override
+    public int getVertexCount(int detail) {
+        return SphereMesh.mesh(DETAIL_MESH_LEVELS[detail]).getSize();
+    }
+
+    @Override
+    public Box getBoundingBox(EntityState state, float tickDelta) {
+        return Box.around(state.position, radius);
     }
 
     public float getRadius() {
@@ -1,109 +1,45 @@
 package io.github.itzispyder.render.entity;
 
 import io.github.itzispyder.math.Matrix;
-import io.github.itzispyder.math.Vector;
+import io.github.itzispyder.math.SphereMesh;
 import io.github.itzispyder.math.VertexBuffer;
-import io.github.itzispyder.render.Entity;
 import io.github.itzispyder.util.Mth;
 
-import static io.github.itzispyder.Main.world;
+/**
+ * Geometry of a bullet, the bullets themselves live in {@link ProjectileSystem}
+ */
+public class SphereBullet {
 
-public class SphereBullet extends Sphere {
+    public static final int MAX_AGE = 20 * 5; // 5 seconds
+    public static final int MESH_LEVEL = 6;
 
-    private final int maxAge = 20 * 5; // 5 seconds
-    private int age;
-    public boolean gravity;
-    public int color;
-    private final Matrix rotationInitial;
-    private Matrix rotation;
+    // tessellation of each level of detail
+    private static final int[] DETAIL_MESH_LEVELS = {MESH_LEVEL, 3, 2};
+    public static final int DETAIL_LEVELS = DETAIL_MESH_LEVELS.length;
 
-    public SphereBullet(Vector position, Matrix rotationInitial, float radius) {
-        super(position, radius);
-        this.color = 0xFF00B7FF;
-        this.rotationInitial = rotationInitial;
-        this.rotation = rotationInitial;
-    }
-
-    public SphereBullet(Vector position, float radius) {
-        this(position, Matrix.IDENTITY, radius);
-    }
-
-    @Override
-    public void onTick() {
-        super.onTick();
-        if (age++ >= maxAge) {
-            world.removeEntity(this);
-        }
-
-        for (int i = 0; i < 10; i++)
-            travel();
-    }
-
-    private void travel() {
-        position = position.add(velocity);
-        velocity = velocity.mul(0.99F).sub(0, gravity ? 0.001F : 0, 0);
-        rotation = rotationInitial.mul(Matrix.ROT_X((age / (float) maxAge) * Mth.PI_OVER_TWO));
-        pollCollisionWithMissile();
-        pollCollisionWithTileMap();
-    }
+    // the bullet is a unit sphere squashed to a tenth of its height
+    private static final float FLATTEN = 0.1F;
 
-    private void pollCollisionWithMissile() {
-        for (int i = world.getEntities().size() - 1; i >= 0; i--) {
-            Entity entity = world.getEntities().get(i);
-            if (!entity.isInRange(this, 2))
-                continue;
-
-            if (entity instanceof Missile target) {
-                world.removeEntity(target);
-                world.removeEntity(this);
-            }
-        }
-    }
-
-    // future developers, the 1.5 represents 150% reflection
-    // 100% to stop the impact, and 50% to push back against the original velocity, creating a reflection
-    private void pollCollisionWithTileMap() {
-        Vector graph = world.tile.getGraphAt(position);
-        if (position.y > graph.y)
-            return;
-
-        Vector graphStepX = world.tile.getGraphAt(position.add(1, 0, 0)).sub(graph);
-        Vector graphStepZ = world.tile.getGraphAt(position.add(0, 0, 1)).sub(graph);
-        Vector intersectNormal = graphStepX.cross(graphStepZ).normalize().negate();
-
-        float dot = velocity.dot(intersectNormal);
-        if (dot >= 0) // perpendicular or away from surface
-            return;
-
-        velocity = velocity.sub(intersectNormal.mul(1.5F * dot));
-        position = graph;
-    }
+    /**
+     * @param rotation orientation the bullet was fired with
+     * @param age ticks the bullet has been alive, it rolls a quarter turn over its lifetime
+     * @param detail level of detail, 0 is the full mesh
+     */
+    public static void buildVertices(VertexBuffer buf, float x, float y, float z, Matrix rotation, float age, float radius, int color, int detail) {
+        float roll = (age / MAX_AGE) * Mth.PI_OVER_TWO;
+        float c = Mth.cos(roll) * radius, s = Mth.sin(roll) * radius;
+        float cy = c * FLATTEN, sy = s * FLATTEN;
+        Matrix r = rotation;
 
-    @Override
-    public void render(VertexBuffer buf, float tickDelta) {
-        Vector position = this.getPosition(tickDelta);
-        float radius = this.getRadius();
+        // rotation * ROT_X(roll) * scale(radius, radius * FLATTEN, radius)
+        float mx0 = r.mx0 * radius, mx1 = r.mx1 * cy - r.mx2 * sy, mx2 = r.mx1 * s + r.mx2 * c;
+        float my0 = r.my0 * radius, my1 = r.my1 * cy - r.my2 * sy, my2 = r.my1 * s + r.my2 * c;
+        float mz0 = r.mz0 * radius, mz1 = r.mz1 * cy - r.mz2 * sy, mz2 = r.mz1 * s + r.mz2 * c;
 
-        float dTheta = Mth.PI / 6;
-        for (float pitch = 0; pitch < Mth.TWO_PI; pitch += dTheta) {
-            for (float yaw = 0; yaw < Mth.PI; yaw += dTheta) {
-                buf.vertex(position.add(polar2vectorSpecial(pitch, yaw).mul(radius)), color);
-                buf.vertex(position.add(polar2vectorSpecial(pitch, yaw + dTheta).mul(radius)), color);
-            }
-        }
-        for (float yaw = 0; yaw < Mth.PI; yaw += dTheta) {
-            for (float pitch = 0; pitch < Mth.TWO_PI; pitch += dTheta) {
-                buf.vertex(position.add(polar2vectorSpecial(pitch, yaw).mul(radius)), color);
-                buf.vertex(position.add(polar2vectorSpecial(pitch + dTheta, yaw).mul(radius)), color);
-            }
-        }
+        buf.instance(SphereMesh.mesh(DETAIL_MESH_LEVELS[detail]), mx0, mx1, mx2, my0, my1, my2, mz0, mz1, mz2, x, y, z, color);
     }
 
-    private Vector polar2vectorSpecial(float pitch, float yaw) {
-        Vector cartesian = new Vector(
-                Mth.cos(yaw) * Mth.cos(pitch),
-                0.1 * Mth.sin(pitch),
-                Mth.sin(yaw) * Mth.cos(pitch));
-        return rotation.transform(cartesian);
+    public static int getVertexCount(int detail) {
+        return SphereMesh.mesh(DETAIL_MESH_LEVELS[detail]).getSize();
     }
 }
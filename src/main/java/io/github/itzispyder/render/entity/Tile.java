@@ -1,27 +1,45 @@
 package io.github.itzispyder.render.entity;
 
+import io.github.itzispyder.math.Box;
+import io.github.itzispyder.math.Mesh;
 import io.github.itzispyder.math.Vector;
 import io.github.itzispyder.math.VertexBuffer;
 import io.github.itzispyder.render.Entity;
+import io.github.itzispyder.render.EntityState;
 
 public class Tile extends Entity {
 
+    private static final Mesh SQUARE = square();
+
     public Tile(Vector position) {
         super(position);
     }
 
     @Override
-    public void render(VertexBuffer buf, float tickDelta) {
+    public void render(VertexBuffer buf, EntityState state, float tickDelta) {
+        Vector position = state.position;
+        buf.instance(SQUARE, position.x, position.y, position.z);
+    }
+
+    private static Mesh square() {
+        VertexBuffer buf = new VertexBuffer(8);
         int o = 0;
         int i = o + 1;
 
-        buf.vertex(position.add(o, o, o));
-        buf.vertex(position.add(i, o, o));
-        buf.vertex(position.add(i, o, o));
-        buf.vertex(position.add(i, o, i));
-        buf.vertex(position.add(i, o, i));
-        buf.vertex(position.add(o, o, i));
-        buf.vertex(position.add(o, o, i));
-        buf.vertex(position.add(o, o, o));
+        buf.vertex(o, o, o);
+        buf.vertex(i, o, o);
+        buf.vertex(i, o, o);
+        buf.vertex(i, o, i);
+        buf.vertex(i, o, i);
+        buf.vertex(o, o, i);
+        buf.vertex(o, o, i);
+        buf.vertex(o, o, o);
+        return buf.toMesh().optimized();
+    }
+
+    @Override
+    public Box getBoundingBox(EntityState state, float tickDelta) {
+        Vector position = state.position;
+        return new Box(position, position.add(1, 0, 1));
     }
 }
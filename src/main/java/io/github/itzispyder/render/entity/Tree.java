@@ -1,76 +1,136 @@
 package io.github.itzispyder.render.entity;
 
+import io.github.itzispyder.math.Box;
+import io.github.itzispyder.math.Mesh;
 import io.github.itzispyder.math.Vector;
 import io.github.itzispyder.math.VertexBuffer;
+import io.github.itzispyder.math.VertexFormat;
 import io.github.itzispyder.render.Entity;
+import io.github.itzispyder.render.EntityState;
 import io.github.itzispyder.util.Mth;
 
 public class Tree extends Entity {
 
     private static final int colorTrunk = 0xFF8C6803;
     private static final int colorLeaves = 0xFF00BF39;
-    private final VertexBuffer buffer;
+
+    // every tree draws one of a few random shapes built around the origin, each at every level of detail
+    private static final int DETAIL_LEVELS = 3;
+    private static final Mesh[][] VARIANTS = new Mesh[8][DETAIL_LEVELS];
+
+    static {
+        for (Mesh[] variant : VARIANTS) {
+            VertexBuffer[] levels = new VertexBuffer[DETAIL_LEVELS];
+            for (int detail = 0; detail < DETAIL_LEVELS; detail++)
+                levels[detail] = new VertexBuffer(636);
+            bufferTrunk(levels, Vector.ZERO);
+            for (int detail = 0; detail < DETAIL_LEVELS; detail++)
+                variant[detail] = levels[detail].toMesh().optimized();
+        }
+    }
+
+    private final Mesh[] meshes;
+    private final Box bounds;
 
     public Tree(Vector position) {
         super(position);
-        this.buffer = new VertexBuffer(636);
-        this.buildBuffer(buffer);
+        this.meshes = VARIANTS[(int) (VARIANTS.length * Math.random())];
+        this.bounds = meshes[0].getBounds().offset(position);
     }
 
     @Override
-    public void render(VertexBuffer buf, float tickDelta) {
-        buffer.uploadTo(buf);
+    public void render(VertexBuffer buf, EntityState state, float tickDelta) {
+        this.render(buf, state, tickDelta, 0);
     }
 
-    private void buildBuffer(VertexBuffer buf) {
-        this.bufferTrunk(buf);
+    @Override
+    public void render(VertexBuffer buf, EntityState state, float tickDelta, int detail) {
+        Vector position = state.position;
+        buf.instance(meshes[detail], position.x, position.y, position.z);
     }
 
-    private void bufferTrunk(VertexBuffer buf) {
+    @Override
+    public int getDetailLevels() {
+        return DETAIL_LEVELS;
+    }
+
+    @Override
+    public int getVertexCount(int detail) {
+        return meshes[detail].getSize();
+    }
+
+    @Override
+    public Box getBoundingBox(EntityState state, float tickDelta) {
+        return bounds;
+    }
+
+    /**
+     * Adds a line to every level from full detail up to and including {@code coarsest}
+     */
+    private static void line(VertexBuffer[] levels, int coarsest, Vector from, Vector to, int color) {
+        for (int detail = 0; detail <= coarsest; detail++) {
+            levels[detail].vertex(from, color);
+            levels[detail].vertex(to, color);
+        }
+    }
+
+    /**
+     * Adds a closed ring through {@code points} to every level from full detail up to and including {@code coarsest}
+     */
+    private static void loop(VertexBuffer[] levels, int coarsest, Vector[] points, int color) {
+        for (int detail = 0; detail <= coarsest; detail++) {
+            levels[detail].swap(VertexFormat.LINE_LOOP);
+            for (Vector point : points)
+                levels[detail].vertex(point, color);
+            levels[detail].swap(VertexFormat.LINES);
+        }
+    }
+
+    private static void bufferTrunk(VertexBuffer[] levels, Vector position) {
         float trunkRadius = 1;
         int trunkHeight = 10;
+        Vector[] ring = new Vector[8];
 
         for (int y = 0; y < trunkHeight; y++) {
             int iRand1 = (int)(8 * Math.random()) * 45;
             int iRand2 = (int)(8 * Math.random()) * 45;
-            for (int i = 0; i < 360; i += 45) {
-                int i2 = i + 45;
-                Vector trunkPoint = position.add(Mth.cos(i) * trunkRadius, y, Mth.sin(i) * trunkRadius);
+            int ringDetail = y == 0 ? 2 : y % 3 == 0 ? 1 : 0; // far away trees keep every third ring, then only the base
 
-                buf.vertex(trunkPoint, colorTrunk);
-                buf.vertex(position.add(Mth.cos(i2) * trunkRadius, y, Mth.sin(i2) * trunkRadius), colorTrunk);
+            for (int i = 0; i < 360; i += 45)
+                ring[i / 45] = position.add(Mth.cos(i) * trunkRadius, y, Mth.sin(i) * trunkRadius);
+            loop(levels, ringDetail, ring, colorTrunk);
+
+            for (int i = 0; i < 360; i += 45) {
+                Vector trunkPoint = ring[i / 45];
 
                 if (y == 0) {
-                    buf.vertex(position.add(Mth.cos(i) * trunkRadius, 0, Mth.sin(i) * trunkRadius), colorTrunk);
-                    buf.vertex(position.add(Mth.cos(i) * (trunkRadius / 2), trunkHeight, Mth.sin(i) * (trunkRadius / 2)), colorTrunk);
+                    line(levels, 2, position.add(Mth.cos(i) * trunkRadius, 0, Mth.sin(i) * trunkRadius),
+                            position.add(Mth.cos(i) * (trunkRadius / 2), trunkHeight, Mth.sin(i) * (trunkRadius / 2)), colorTrunk);
                 }
                 if ((i == iRand1 || i == iRand2) && y >= 5) {
-                    this.bufferBranch(buf, trunkPoint);
+                    bufferBranch(levels, position, trunkPoint);
                 }
             }
             trunkRadius -= 0.05F;
         }
-        this.bufferLeaves(buf, position.add(0, trunkHeight, 0));
+        bufferLeaves(levels, position.add(0, trunkHeight, 0));
     }
 
-    private void bufferBranch(VertexBuffer buf, Vector from) {
+    private static void bufferBranch(VertexBuffer[] levels, Vector position, Vector from) {
         float length = (float) (3 + Math.random() * 2);
         float toY = (float) (from.y - Math.random());
         Vector dir = from.sub(position.withY(toY)).normalize();
         Vector to = from.add(dir.mul(length)).applyRandomization(0.1F);
 
-        buf.vertex(from, colorTrunk);
-        buf.vertex(to, colorTrunk);
+        line(levels, 2, from, to, colorTrunk);
 
-        this.bufferLeaves(buf, to);
+        bufferLeaves(levels, to);
     }
 
-    private void bufferLeaves(VertexBuffer buf, Vector from) {
+    private static void bufferLeaves(VertexBuffer[] levels, Vector from) {
         for (int i = 0; i < 20; i++) {
             Vector to = from.applyRandomization(1.5F);
-
-            buf.vertex(from, colorLeaves);
-            buf.vertex(to, colorLeaves);
+            line(levels, i < 3 ? 2 : i < 8 ? 1 : 0, from, to, colorLeaves);
         }
     }
 }
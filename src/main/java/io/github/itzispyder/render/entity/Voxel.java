@@ -1,11 +1,17 @@
 package io.github.itzispyder.render.entity;
 
+import io.github.itzispyder.math.Box;
+import io.github.itzispyder.math.Matrix;
+import io.github.itzispyder.math.Mesh;
 import io.github.itzispyder.math.Vector;
 import io.github.itzispyder.math.VertexBuffer;
 import io.github.itzispyder.render.Entity;
+import io.github.itzispyder.render.EntityState;
 
 public class Voxel extends Entity {
 
+    private static final Mesh CUBE = cube();
+
     private float sideLength;
 
     public Voxel() {
@@ -13,35 +19,45 @@ public class Voxel extends Entity {
     }
 
     public static void buildVertices(VertexBuffer buf, Vector position, float sideLength, int color) {
+        Matrix scale = sideLength == 1 ? Matrix.IDENTITY : Matrix.scale(sideLength);
+        buf.instance(CUBE, scale, position.x, position.y, position.z, color);
+    }
+
+    /**
+     * Unit cube edges, eight shared corners once welded
+     */
+    private static Mesh cube() {
+        VertexBuffer buf = new VertexBuffer(24);
         float o = 0;
-        float i = o + sideLength;
-
-        buf.vertex(position.add(o, o, o), color);
-        buf.vertex(position.add(i, o, o), color);
-        buf.vertex(position.add(i, o, o), color);
-        buf.vertex(position.add(i, o, i), color);
-        buf.vertex(position.add(i, o, i), color);
-        buf.vertex(position.add(o, o, i), color);
-        buf.vertex(position.add(o, o, i), color);
-        buf.vertex(position.add(o, o, o), color);
-
-        buf.vertex(position.add(o, i, o), color);
-        buf.vertex(position.add(i, i, o), color);
-        buf.vertex(position.add(i, i, o), color);
-        buf.vertex(position.add(i, i, i), color);
-        buf.vertex(position.add(i, i, i), color);
-        buf.vertex(position.add(o, i, i), color);
-        buf.vertex(position.add(o, i, i), color);
-        buf.vertex(position.add(o, i, o), color);
-
-        buf.vertex(position.add(o, o, o), color);
-        buf.vertex(position.add(o, i, o), color);
-        buf.vertex(position.add(i, o, o), color);
-        buf.vertex(position.add(i, i, o), color);
-        buf.vertex(position.add(i, o, i), color);
-        buf.vertex(position.add(i, i, i), color);
-        buf.vertex(position.add(o, o, i), color);
-        buf.vertex(position.add(o, i, i), color);
+        float i = 1;
+
+        buf.vertex(o, o, o);
+        buf.vertex(i, o, o);
+        buf.vertex(i, o, o);
+        buf.vertex(i, o, i);
+        buf.vertex(i, o, i);
+        buf.vertex(o, o, i);
+        buf.vertex(o, o, i);
+        buf.vertex(o, o, o);
+
+        buf.vertex(o, i, o);
+        buf.vertex(i, i, o);
+        buf.vertex(i, i, o);
+        buf.vertex(i, i, i);
+        buf.vertex(i, i, i);
+        buf.vertex(o, i, i);
+        buf.vertex(o, i, i);
+        buf.vertex(o, i, o);
+
+        buf.vertex(o, o, o);
+        buf.vertex(o, i, o);
+        buf.vertex(i, o, o);
+        buf.vertex(i, i, o);
+        buf.vertex(i, o, i);
+        buf.vertex(i, i, i);
+        buf.vertex(o, o, i);
+        buf.vertex(o, i, i);
+        return buf.toMesh().optimized();
     }
 
     public Voxel(Vector position) {
@@ -55,10 +71,17 @@ public class Voxel extends Entity {
     }
 
     @Override
-    public void render(VertexBuffer buf, float tickDelta) {
+    public void render(VertexBuffer buf, EntityState state, float tickDelta) {
+        Vector position = state.position;
         buildVertices(buf, position, sideLength, 0xFFFFFFFF);
     }
 
+    @Override
+    public Box getBoundingBox(EntityState state, float tickDelta) {
+        Vector position = state.position;
+        return new Box(position, position.add(sideLength));
+    }
+
     public void setSideLength(int sideLength) {
         this.sideLength = sideLength;
     }
@@ -0,0 +1,250 @@
+package io.github.itzispyder.render.raster;
+
+import io.github.itzispyder.math.PrimitiveSink;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.util.Arrays;
+
+/**
+ * Software rasterizer writing straight into the pixel array of a {@link BufferedImage},
+ * the image is then blitted to the screen with a single drawImage call per frame.
+ */
+public class Rasterizer implements PrimitiveSink {
+
+    private static final int GUARD_BAND = 64;
+
+    private BufferedImage image;
+    private int[] pixels;
+    private int width, height;
+    private final float[] scratch = new float[4];
+    private final int[] clipped = new int[4];
+
+    public Rasterizer() {
+        this.allocate(1, 1);
+    }
+
+    public void resize(int width, int height) {
+        width = Math.max(width, 1);
+        height = Math.max(height, 1);
+        if (width != this.width || height != this.height)
+            allocate(width, height);
+    }
+
+    private void allocate(int width, int height) {
+        this.width = width;
+        this.height = height;
+        this.image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        this.pixels = ((DataBufferInt) image.getRaster().getDataBuffer()).getData();
+    }
+
+    public void clear(int color) {
+        Arrays.fill(pixels, color);
+    }
+
+    public void blit(Graphics graphics) {
+        graphics.drawImage(image, 0, 0, null);
+    }
+
+    @Override
+    public void line(int x1, int y1, int x2, int y2, int color) {
+        if (clipLine(x1, y1, x2, y2, width, height, clipped))
+            drawLine(clipped[0], clipped[1], clipped[2], clipped[3], color, 0, 0, width, height);
+    }
+
+    @Override
+    public void quad(int[] xPoints, int[] yPoints, int color) {
+        fillPolygon(xPoints, yPoints, 0, 4, color, scratch, 0, 0, width, height);
+    }
+
+    @Override
+    public void triangle(int[] xPoints, int[] yPoints, int color) {
+        fillPolygon(xPoints, yPoints, 0, 3, color, scratch, 0, 0, width, height);
+    }
+
+    /**
+     * Fixed point line walk along the major axis. The minor coordinate of every pixel only depends
+     * on the endpoints, so drawing the same line with different clip rectangles never leaves seams.
+     * Endpoints are expected to have gone through {@link #clipLine(int, int, int, int, int, int, int[])},
+     * clip bounds are min inclusive, max exclusive.
+     */
+    public void drawLine(int x1, int y1, int x2, int y2, int color, int minX, int minY, int maxX, int maxY) {
+        if (color >>> 24 == 0)
+            return;
+
+        long dx = (long) x2 - x1;
+        long dy = (long) y2 - y1;
+
+        if (Math.abs(dx) >= Math.abs(dy)) {
+            if (dx == 0) {
+                if (x1 >= minX && x1 < maxX && y1 >= minY && y1 < maxY)
+                    blend(y1 * width + x1, color);
+                return;
+            }
+            if (dx < 0) {
+                int t = x1; x1 = x2; x2 = t;
+                t = y1; y1 = y2; y2 = t;
+                dx = -dx;
+                dy = -dy;
+            }
+            long slope = (dy << 16) / dx;
+            int from = Math.max(x1, minX);
+            int to = Math.min(x2, maxX - 1);
+            for (int x = from; x <= to; x++) {
+                int y = minorAt(x, x1, y1, slope);
+                if (y >= minY && y < maxY)
+                    blend(y * width + x, color);
+            }
+        }
+        else {
+            if (dy < 0) {
+                int t = x1; x1 = x2; x2 = t;
+                t = y1; y1 = y2; y2 = t;
+                dx = -dx;
+                dy = -dy;
+            }
+            long slope = (dx << 16) / dy;
+            int from = Math.max(y1, minY);
+            int to = Math.min(y2, maxY - 1);
+            for (int y = from; y <= to; y++) {
+                int x = minorAt(y, y1, x1, slope);
+                if (x >= minX && x < maxX)
+                    blend(y * width + x, color);
+            }
+        }
+    }
+
+    /**
+     * Minor axis coordinate of a line at the given major axis coordinate, rounded to the nearest pixel
+     */
+    static int minorAt(int major, int major1, int minor1, long slope) {
+        return minor1 + (int) (((major - major1) * slope + 0x8000) >> 16);
+    }
+
+    private static boolean isInGuardBand(int x, int y, int width, int height) {
+        return x >= -GUARD_BAND && x <= width + GUARD_BAND && y >= -GUARD_BAND && y <= height + GUARD_BAND;
+    }
+
+    /**
+     * Liang-Barsky clip of a segment against the guard band around a {@code width * height} frame,
+     * this keeps the fixed point math in {@link #drawLine} from overflowing on near plane vertices.
+     * @param dest receives (x1, y1, x2, y2) of the clipped segment
+     * @return false if the segment misses the frame entirely
+     */
+    public static boolean clipLine(int x1, int y1, int x2, int y2, int width, int height, int[] dest) {
+        if (isInGuardBand(x1, y1, width, height) && isInGuardBand(x2, y2, width, height)) {
+            dest[0] = x1;
+            dest[1] = y1;
+            dest[2] = x2;
+            dest[3] = y2;
+            return true;
+        }
+
+        double dx = (double) x2 - x1;
+        double dy = (double) y2 - y1;
+        double t0 = 0, t1 = 1;
+
+        for (int i = 0; i < 4; i++) {
+            double p = switch (i) {
+                case 0 -> -dx;
+                case 1 -> dx;
+                case 2 -> -dy;
+                default -> dy;
+            };
+            double q = switch (i) {
+                case 0 -> (double) x1 + GUARD_BAND;
+                case 1 -> (double) width + GUARD_BAND - x1;
+                case 2 -> (double) y1 + GUARD_BAND;
+                default -> (double) height + GUARD_BAND - y1;
+            };
+
+            if (p == 0) {
+                if (q < 0)
+                    return false;
+                continue;
+            }
+            double t = q / p;
+            if (p < 0)
+                t0 = Math.max(t0, t);
+            else
+                t1 = Math.min(t1, t);
+            if (t0 > t1)
+                return false;
+        }
+
+        dest[0] = (int) Math.round(x1 + t0 * dx);
+        dest[1] = (int) Math.round(y1 + t0 * dy);
+        dest[2] = (int) Math.round(x1 + t1 * dx);
+        dest[3] = (int) Math.round(y1 + t1 * dy);
+        return true;
+    }
+
+    /**
+     * Even-odd scanline fill sampled at pixel centers, same rule as {@link Graphics#fillPolygon(int[], int[], int)}.
+     * Points are read from {@code offset} onwards, {@code scratch} must hold at least {@code count} floats.
+     */
+    public void fillPolygon(int[] xPoints, int[] yPoints, int offset, int count, int color, float[] scratch, int minX, int minY, int maxX, int maxY) {
+        if (color >>> 24 == 0)
+            return;
+
+        int top = Integer.MAX_VALUE;
+        int bottom = Integer.MIN_VALUE;
+        for (int i = offset; i < offset + count; i++) {
+            top = Math.min(top, yPoints[i]);
+            bottom = Math.max(bottom, yPoints[i]);
+        }
+        top = Math.max(top, minY);
+        bottom = Math.min(bottom, maxY - 1);
+
+        for (int y = top; y <= bottom; y++) {
+            float sampleY = y + 0.5F;
+            int crossings = 0;
+
+            for (int i = offset, j = offset + count - 1; i < offset + count; j = i++) {
+                float ay = yPoints[j], by = yPoints[i];
+                if ((ay <= sampleY) == (by <= sampleY))
+                    continue;
+                float t = (sampleY - ay) / (by - ay);
+                float x = xPoints[j] + t * ((float) xPoints[i] - xPoints[j]);
+
+                int k = crossings++;
+                while (k > 0 && scratch[k - 1] > x) {
+                    scratch[k] = scratch[k - 1];
+                    k--;
+                }
+                scratch[k] = x;
+            }
+
+            int row = y * width;
+            for (int i = 0; i + 1 < crossings; i += 2) {
+                int from = (int) Math.max(Math.ceil(scratch[i] - 0.5F), minX);
+                int to = (int) Math.min(Math.ceil(scratch[i + 1] - 0.5F), maxX);
+                for (int x = from; x < to; x++)
+                    blend(row + x, color);
+            }
+        }
+    }
+
+    private void blend(int index, int color) {
+        int a = color >>> 24;
+        if (a == 0xFF) {
+            pixels[index] = color;
+            return;
+        }
+
+        int dest = pixels[index];
+        int inv = 0xFF - a;
+        int rb = ((color & 0xFF00FF) * a + (dest & 0xFF00FF) * inv) >>> 8 & 0xFF00FF;
+        int g = ((color & 0x00FF00) * a + (dest & 0x00FF00) * inv) >>> 8 & 0x00FF00;
+        pixels[index] = rb | g;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+}
@@ -0,0 +1,242 @@
+package io.github.itzispyder.render.raster;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Records primitives instead of drawing them, bins them into screen tiles on {@link #flush()},
+ * then rasterizes the tiles in parallel. Every tile owns its own pixels, so workers never lock
+ * the framebuffer, and primitives keep their submission order within a tile.
+ */
+public class TiledRasterizer extends Rasterizer {
+
+    public static final int TILE_SIZE = 64;
+    private static final int TILES_PER_TASK = 4;
+
+    private final ForkJoinPool pool;
+
+    // recorded primitives, up to 4 points each, 2 for a line
+    private int[] primX, primY, primCount, primColor;
+    private int prims;
+    private final int[] clipped = new int[4];
+
+    // per tile primitive lists, tileItems[tileStarts[t] until tileStarts[t + 1]]
+    private int tilesX, tilesY;
+    private int[] tileStarts, tileFill, tileItems;
+    private final int[] tileBounds = new int[4];
+
+    public TiledRasterizer(ForkJoinPool pool) {
+        this.pool = pool;
+        this.primX = new int[4 * 1024];
+        this.primY = new int[4 * 1024];
+        this.primCount = new int[1024];
+        this.primColor = new int[1024];
+        this.tileItems = new int[1024];
+        this.tileStarts = new int[1];
+        this.tileFill = new int[0];
+    }
+
+    public TiledRasterizer() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    @Override
+    public void resize(int width, int height) {
+        super.resize(width, height);
+        tilesX = (getWidth() + TILE_SIZE - 1) / TILE_SIZE;
+        tilesY = (getHeight() + TILE_SIZE - 1) / TILE_SIZE;
+        if (tileFill.length != tilesX * tilesY) {
+            tileStarts = new int[tilesX * tilesY + 1];
+            tileFill = new int[tilesX * tilesY];
+        }
+    }
+
+    @Override
+    public void line(int x1, int y1, int x2, int y2, int color) {
+        if (color >>> 24 == 0 || !clipLine(x1, y1, x2, y2, getWidth(), getHeight(), clipped))
+            return;
+
+        int i = record(2, color);
+        primX[i] = clipped[0];
+        primY[i] = clipped[1];
+        primX[i + 1] = clipped[2];
+        primY[i + 1] = clipped[3];
+    }
+
+    @Override
+    public void quad(int[] xPoints, int[] yPoints, int color) {
+        polygon(xPoints, yPoints, 4, color);
+    }
+
+    @Override
+    public void triangle(int[] xPoints, int[] yPoints, int color) {
+        polygon(xPoints, yPoints, 3, color);
+    }
+
+    private void polygon(int[] xPoints, int[] yPoints, int count, int color) {
+        if (color >>> 24 == 0)
+            return;
+
+        int i = record(count, color);
+        System.arraycopy(xPoints, 0, primX, i, count);
+        System.arraycopy(yPoints, 0, primY, i, count);
+    }
+
+    private int record(int count, int color) {
+        if (prims == primCount.length) {
+            primX = Arrays.copyOf(primX, primX.length * 2);
+            primY = Arrays.copyOf(primY, primY.length * 2);
+            primCount = Arrays.copyOf(primCount, prims * 2);
+            primColor = Arrays.copyOf(primColor, prims * 2);
+        }
+        primCount[prims] = count;
+        primColor[prims] = color;
+        return 4 * prims++;
+    }
+
+    /**
+     * Bins and rasterizes everything recorded since the last flush
+     */
+    public void flush() {
+        bin();
+        pool.invoke(new TileTask(0, tilesX * tilesY));
+        prims = 0;
+    }
+
+    private void bin() {
+        Arrays.fill(tileFill, 0);
+
+        // count pass
+        for (int p = 0; p < prims; p++)
+            binPrimitive(p, false);
+
+        int total = 0;
+        for (int t = 0; t < tileFill.length; t++) {
+            tileStarts[t] = total;
+            total += tileFill[t];
+            tileFill[t] = tileStarts[t];
+        }
+        tileStarts[tileFill.length] = total;
+        if (tileItems.length < total)
+            tileItems = new int[Math.max(total, tileItems.length * 2)];
+
+        // fill pass, in submission order
+        for (int p = 0; p < prims; p++)
+            binPrimitive(p, true);
+    }
+
+    private void binPrimitive(int p, boolean fill) {
+        if (primCount[p] == 2) {
+            binLine(p, fill);
+            return;
+        }
+        if (!tileRange(p))
+            return;
+        for (int ty = tileBounds[1]; ty <= tileBounds[3]; ty++)
+            for (int tx = tileBounds[0]; tx <= tileBounds[2]; tx++)
+                binTile(p, ty * tilesX + tx, fill);
+    }
+
+    /**
+     * Walks the line one tile column (or row) at a time along its major axis, so long diagonals
+     * only land in the tiles they cross instead of their whole bounding box
+     */
+    private void binLine(int p, boolean fill) {
+        int i = 4 * p;
+        int x1 = primX[i], y1 = primY[i], x2 = primX[i + 1], y2 = primY[i + 1];
+        boolean xMajor = Math.abs((long) x2 - x1) >= Math.abs((long) y2 - y1);
+
+        int major1 = xMajor ? x1 : y1, minor1 = xMajor ? y1 : x1;
+        int major2 = xMajor ? x2 : y2, minor2 = xMajor ? y2 : x2;
+        if (major2 < major1) {
+            int t = major1; major1 = major2; major2 = t;
+            t = minor1; minor1 = minor2; minor2 = t;
+        }
+        int majorSize = xMajor ? getWidth() : getHeight();
+        int minorSize = xMajor ? getHeight() : getWidth();
+        long slope = major2 == major1 ? 0 : (((long) minor2 - minor1) << 16) / ((long) major2 - major1);
+
+        int from = Math.max(major1, 0);
+        int to = Math.min(major2, majorSize - 1);
+        for (int band = from / TILE_SIZE; band <= to / TILE_SIZE; band++) {
+            int a = Rasterizer.minorAt(Math.max(from, band * TILE_SIZE), major1, minor1, slope);
+            int b = Rasterizer.minorAt(Math.min(to, band * TILE_SIZE + TILE_SIZE - 1), major1, minor1, slope);
+            int lo = Math.min(a, b), hi = Math.max(a, b);
+            if (hi < 0 || lo >= minorSize)
+                continue;
+
+            for (int cross = Math.max(lo, 0) / TILE_SIZE; cross <= Math.min(hi, minorSize - 1) / TILE_SIZE; cross++)
+                binTile(p, xMajor ? cross * tilesX + band : band * tilesX + cross, fill);
+        }
+    }
+
+    private void binTile(int p, int tile, boolean fill) {
+        if (fill)
+            tileItems[tileFill[tile]++] = p;
+        else
+            tileFill[tile]++;
+    }
+
+    /**
+     * Stores the (minX, minY, maxX, maxY) tiles covered by the primitive's bounds in {@link #tileBounds}
+     * @return false if the primitive is off-screen
+     */
+    private boolean tileRange(int p) {
+        int minX = Integer.MAX_VALUE, minY = Integer.MAX_VALUE;
+        int maxX = Integer.MIN_VALUE, maxY = Integer.MIN_VALUE;
+        for (int i = 4 * p; i < 4 * p + primCount[p]; i++) {
+            minX = Math.min(minX, primX[i]);
+            minY = Math.min(minY, primY[i]);
+            maxX = Math.max(maxX, primX[i]);
+            maxY = Math.max(maxY, primY[i]);
+        }
+        if (maxX < 0 || maxY < 0 || minX >= getWidth() || minY >= getHeight())
+            return false;
+
+        tileBounds[0] = Math.max(minX, 0) / TILE_SIZE;
+        tileBounds[1] = Math.max(minY, 0) / TILE_SIZE;
+        tileBounds[2] = Math.min(maxX, getWidth() - 1) / TILE_SIZE;
+        tileBounds[3] = Math.min(maxY, getHeight() - 1) / TILE_SIZE;
+        return true;
+    }
+
+    private void rasterizeTile(int tile, float[] scratch) {
+        int minX = (tile % tilesX) * TILE_SIZE;
+        int minY = (tile / tilesX) * TILE_SIZE;
+        int maxX = Math.min(minX + TILE_SIZE, getWidth());
+        int maxY = Math.min(minY + TILE_SIZE, getHeight());
+
+        for (int i = tileStarts[tile]; i < tileStarts[tile + 1]; i++) {
+            int p = tileItems[i];
+            int offset = 4 * p;
+            if (primCount[p] == 2)
+                drawLine(primX[offset], primY[offset], primX[offset + 1], primY[offset + 1], primColor[p], minX, minY, maxX, maxY);
+            else
+                fillPolygon(primX, primY, offset, primCount[p], primColor[p], scratch, minX, minY, maxX, maxY);
+        }
+    }
+
+    @SuppressWarnings("serial") // fork/join tasks are never serialized
+    private class TileTask extends RecursiveAction {
+
+        private final int from, to;
+
+        private TileTask(int from, int to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= TILES_PER_TASK) {
+                float[] scratch = new float[4];
+                for (int tile = from; tile < to; tile++)
+                    rasterizeTile(tile, scratch);
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new TileTask(from, mid), new TileTask(mid, to));
+        }
+    }
+}
@@ -0,0 +1,183 @@
+package io.github.itzispyder.render.terrain;
+
+import io.github.itzispyder.math.Vector;
+import io.github.itzispyder.math.VertexBuffer;
+import io.github.itzispyder.render.WorldManager;
+
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.DoubleBinaryOperator;
+
+/**
+ * Unbounded terrain over a height function, split into square chunks that are generated around the viewer
+ * on background threads. Finished chunks are handed to the tick thread and enter the world as entities,
+ * chunks that fall out of range leave the world but stay cached until the cache is full, least recently used first.
+ * The game loop never waits on a chunk, ground that is not generated yet is simply not drawn.
+ */
+public class ChunkedTerrain implements Terrain {
+
+    public static final int CHUNK_SIZE = 32;
+
+    private static final ExecutorService GENERATOR = Executors.newFixedThreadPool(
+            Math.max(1, Runtime.getRuntime().availableProcessors() / 2),
+            task -> {
+                Thread thread = new Thread(task, "Terrain Generator");
+                thread.setDaemon(true);
+                thread.setPriority(Thread.NORM_PRIORITY - 1);
+                return thread;
+            });
+
+    private final DoubleBinaryOperator f;
+    private final double step;
+    private final int color;
+
+    /**
+     * Chunks within this many chunks of the viewer are in the world
+     */
+    public int loadRadius = 6;
+
+    /**
+     * Chunks kept around, in the world or not
+     */
+    public int maxCachedChunks = 512;
+
+    // tick thread only, access ordered so the eldest entry is the least recently used chunk
+    private final LinkedHashMap<Long, TerrainChunk> chunks;
+    private final Set<Long> pending;
+    private int generation; // bumped on detach, so chunks still being generated for the old world are dropped
+
+    private final Queue<TerrainChunk> finished;
+    private final Queue<long[]> failed; // key and generation of chunks whose generator threw
+
+    /**
+     * @param step grid spacing, should divide {@link #CHUNK_SIZE} so neighbouring chunks line up
+     */
+    public ChunkedTerrain(double step, DoubleBinaryOperator f, int color) {
+        this.f = f;
+        this.step = step;
+        this.color = color;
+        this.chunks = new LinkedHashMap<>(64, 0.75F, true);
+        this.pending = new HashSet<>();
+        this.finished = new ConcurrentLinkedQueue<>();
+        this.failed = new ConcurrentLinkedQueue<>();
+    }
+
+    @Override
+    public float getHeightAt(double worldX, double worldZ) {
+        return (float) f.applyAsDouble(worldX, worldZ);
+    }
+
+    @Override
+    public void attach(WorldManager world) {
+
+    }
+
+    @Override
+    public void detach(WorldManager world) {
+        for (TerrainChunk chunk : chunks.values())
+            if (chunk.inWorld)
+                world.removeEntity(chunk);
+        chunks.clear();
+        pending.clear();
+        finished.clear();
+        failed.clear();
+        generation++;
+    }
+
+    @Override
+    public void onTick(WorldManager world, Vector viewer) {
+        for (TerrainChunk chunk; (chunk = finished.poll()) != null; ) {
+            if (chunk.generation != generation)
+                continue;
+            long key = key(chunk.chunkX, chunk.chunkZ);
+            pending.remove(key);
+            chunks.put(key, chunk);
+        }
+        // failed chunks are queued again the next time they are in range
+        for (long[] failure; (failure = failed.poll()) != null; ) {
+            if (failure[1] == generation)
+                pending.remove(failure[0]);
+        }
+
+        int centerX = (int) Math.floor(viewer.x / CHUNK_SIZE);
+        int centerZ = (int) Math.floor(viewer.z / CHUNK_SIZE);
+
+        // nearest rings first, so the ground under the viewer is queued before the horizon
+        for (int ring = 0; ring <= loadRadius; ring++) {
+            for (int dx = -ring; dx <= ring; dx++) {
+                for (int dz = -ring; dz <= ring; dz++) {
+                    if (Math.max(Math.abs(dx), Math.abs(dz)) == ring)
+                        this.load(world, centerX + dx, centerZ + dz);
+                }
+            }
+        }
+
+        for (TerrainChunk chunk : chunks.values()) {
+            // one chunk of slack, so walking along a chunk border does not unload and reload a whole row
+            int distance = Math.max(Math.abs(chunk.chunkX - centerX), Math.abs(chunk.chunkZ - centerZ));
+            if (chunk.inWorld && distance > loadRadius + 1) {
+                chunk.inWorld = false;
+                world.removeEntity(chunk);
+            }
+        }
+
+        Iterator<TerrainChunk> eldest = chunks.values().iterator();
+        while (chunks.size() > maxCachedChunks && eldest.hasNext()) {
+            if (!eldest.next().inWorld)
+                eldest.remove();
+        }
+    }
+
+    private void load(WorldManager world, int chunkX, int chunkZ) {
+        long key = key(chunkX, chunkZ);
+        TerrainChunk chunk = chunks.get(key); // also marks it as recently used
+
+        if (chunk == null) {
+            if (pending.add(key)) {
+                int generation = this.generation;
+                GENERATOR.execute(() -> {
+                    boolean generated = false;
+                    try {
+                        finished.add(generate(chunkX, chunkZ, generation));
+                        generated = true;
+                    }
+                    finally {
+                        if (!generated)
+                            failed.add(new long[] {key, generation});
+                    }
+                });
+            }
+        }
+        else if (!chunk.inWorld) {
+            chunk.inWorld = true;
+            world.addEntity(chunk);
+        }
+    }
+
+    /**
+     * Runs on a generator thread. Each chunk draws the grid lines starting on its own near edges,
+     * the lines on its far edges belong to the neighbours.
+     */
+    private TerrainChunk generate(int chunkX, int chunkZ, int generation) {
+        double cornerX = (double) chunkX * CHUNK_SIZE;
+        double cornerZ = (double) chunkZ * CHUNK_SIZE;
+        int cells = (int) Math.round(CHUNK_SIZE / step);
+
+        HeightField field = new HeightField(0, 0, step, cells, cells, (x, z) -> f.applyAsDouble(cornerX + x, cornerZ + z));
+        VertexBuffer buf = new VertexBuffer(cells * cells * 4);
+        field.buildVertices(buf, 0, 0, 0, color, false);
+
+        Vector corner = new Vector((float) cornerX, 0, (float) cornerZ);
+        return new TerrainChunk(chunkX, chunkZ, generation, corner, buf.toMesh().optimized());
+    }
+
+    private static long key(int chunkX, int chunkZ) {
+        return ((long) chunkX << 32) | (chunkZ & 0xFFFFFFFFL);
+    }
+}
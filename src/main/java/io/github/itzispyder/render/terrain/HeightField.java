@@ -0,0 +1,199 @@
+package io.github.itzispyder.render.terrain;
+
+import io.github.itzispyder.math.MutableVector;
+import io.github.itzispyder.math.VertexBuffer;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.DoubleBinaryOperator;
+
+/**
+ * A height function sampled once on a regular grid, along with the surface normal at every sample.
+ * Large grids are sampled in parallel, a few rows per task. Lookups between samples are bilinear,
+ * and clamp to the edge outside the grid.
+ */
+public final class HeightField {
+
+    public static final int PARALLEL_THRESHOLD = 64 * 64;
+    public static final int ROWS_PER_TASK = 8;
+
+    private final float originX, originZ, step;
+    private final int samplesX, samplesZ;
+    private final float[] heights;
+    private final float[] normals; // (x, y, z) per sample
+
+    /**
+     * Samples {@code f} at {@code originX + i * step, originZ + j * step} for i up to {@code cellsX} and j up to {@code cellsZ},
+     * every sample is evaluated exactly once
+     */
+    public HeightField(double originX, double originZ, double step, int cellsX, int cellsZ, DoubleBinaryOperator f) {
+        this.originX = (float) originX;
+        this.originZ = (float) originZ;
+        this.step = (float) step;
+        this.samplesX = cellsX + 1;
+        this.samplesZ = cellsZ + 1;
+        this.heights = new float[samplesX * samplesZ];
+        this.normals = new float[samplesX * samplesZ * 3];
+
+        if (samplesX * samplesZ < PARALLEL_THRESHOLD) {
+            sampleRows(originX, originZ, step, f, 0, samplesZ);
+            normalRows(0, samplesZ);
+        }
+        else {
+            // normals read the neighbouring rows, so every height has to be in before they start
+            ForkJoinPool pool = ForkJoinPool.commonPool();
+            pool.invoke(new SampleTask(originX, originZ, step, f, 0, samplesZ));
+            pool.invoke(new NormalTask(0, samplesZ));
+        }
+    }
+
+    private void sampleRows(double originX, double originZ, double step, DoubleBinaryOperator f, int from, int to) {
+        for (int j = from; j < to; j++) {
+            double z = originZ + j * step;
+            for (int i = 0; i < samplesX; i++)
+                heights[j * samplesX + i] = (float) f.applyAsDouble(originX + i * step, z);
+        }
+    }
+
+    /**
+     * Central differences inside, one sided on the edges
+     */
+    private void normalRows(int from, int to) {
+        for (int j = from; j < to; j++) {
+            for (int i = 0; i < samplesX; i++) {
+                int left = Math.max(i - 1, 0), right = Math.min(i + 1, samplesX - 1);
+                int back = Math.max(j - 1, 0), front = Math.min(j + 1, samplesZ - 1);
+                float slopeX = (getSample(right, j) - getSample(left, j)) / ((right - left) * step);
+                float slopeZ = (getSample(i, front) - getSample(i, back)) / ((front - back) * step);
+
+                // (1, slopeX, 0) x (0, slopeZ, 1) negated
+                float invLength = 1 / (float) Math.sqrt(slopeX * slopeX + 1 + slopeZ * slopeZ);
+                int n = (j * samplesX + i) * 3;
+                normals[n] = -slopeX * invLength;
+                normals[n + 1] = invLength;
+                normals[n + 2] = -slopeZ * invLength;
+            }
+        }
+    }
+
+    /**
+     * Emits the grid as lines, first along z for every column then along x for every row, moved by (x, y, z)
+     * @param farEdges whether the last column and row get lines too, grids that tile leave them to their neighbours
+     */
+    public void buildVertices(VertexBuffer buf, float x, float y, float z, int color, boolean farEdges) {
+        int columns = farEdges ? samplesX : samplesX - 1;
+        int rows = farEdges ? samplesZ : samplesZ - 1;
+        buf.ensureCapacity(buf.getSize() + 2 * (columns * (samplesZ - 1) + rows * (samplesX - 1)));
+
+        for (int i = 0; i < columns; i++) {
+            float px = x + originX + i * step;
+            for (int j = 0; j < samplesZ - 1; j++) {
+                buf.vertex(px, y + getSample(i, j), z + originZ + j * step, color);
+                buf.vertex(px, y + getSample(i, j + 1), z + originZ + (j + 1) * step, color);
+            }
+        }
+        for (int j = 0; j < rows; j++) {
+            float pz = z + originZ + j * step;
+            for (int i = 0; i < samplesX - 1; i++) {
+                buf.vertex(x + originX + i * step, y + getSample(i, j), pz, color);
+                buf.vertex(x + originX + (i + 1) * step, y + getSample(i + 1, j), pz, color);
+            }
+        }
+    }
+
+    public float getSample(int i, int j) {
+        return heights[j * samplesX + i];
+    }
+
+    public float getHeight(float x, float z) {
+        float gx = clamp((x - originX) / step, samplesX - 1);
+        float gz = clamp((z - originZ) / step, samplesZ - 1);
+        int i = Math.min((int) gx, samplesX - 2), j = Math.min((int) gz, samplesZ - 2);
+        float tx = gx - i, tz = gz - j;
+
+        int s = j * samplesX + i;
+        float near = heights[s] + (heights[s + 1] - heights[s]) * tx;
+        float far = heights[s + samplesX] + (heights[s + samplesX + 1] - heights[s + samplesX]) * tx;
+        return near + (far - near) * tz;
+    }
+
+    /**
+     * Bilinear blend of the four surrounding sample normals, renormalized
+     */
+    public MutableVector getNormal(float x, float z, MutableVector dest) {
+        float gx = clamp((x - originX) / step, samplesX - 1);
+        float gz = clamp((z - originZ) / step, samplesZ - 1);
+        int i = Math.min((int) gx, samplesX - 2), j = Math.min((int) gz, samplesZ - 2);
+        float tx = gx - i, tz = gz - j;
+
+        int n00 = (j * samplesX + i) * 3, n10 = n00 + 3;
+        int n01 = n00 + samplesX * 3, n11 = n01 + 3;
+        float w00 = (1 - tx) * (1 - tz), w10 = tx * (1 - tz), w01 = (1 - tx) * tz, w11 = tx * tz;
+
+        dest.set(
+                normals[n00] * w00 + normals[n10] * w10 + normals[n01] * w01 + normals[n11] * w11,
+                normals[n00 + 1] * w00 + normals[n10 + 1] * w10 + normals[n01 + 1] * w01 + normals[n11 + 1] * w11,
+                normals[n00 + 2] * w00 + normals[n10 + 2] * w10 + normals[n01 + 2] * w01 + normals[n11 + 2] * w11);
+        return dest.normalize();
+    }
+
+    private static float clamp(float g, int max) {
+        return g < 0 ? 0 : g > max ? max : g;
+    }
+
+    public int getSamplesX() {
+        return samplesX;
+    }
+
+    public int getSamplesZ() {
+        return samplesZ;
+    }
+
+    @SuppressWarnings("serial") // fork/join tasks are never serialized
+    private class SampleTask extends RecursiveAction {
+
+        private final double originX, originZ, step;
+        private final DoubleBinaryOperator f;
+        private final int from, to;
+
+        private SampleTask(double originX, double originZ, double step, DoubleBinaryOperator f, int from, int to) {
+            this.originX = originX;
+            this.originZ = originZ;
+            this.step = step;
+            this.f = f;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= ROWS_PER_TASK) {
+                sampleRows(originX, originZ, step, f, from, to);
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new SampleTask(originX, originZ, step, f, from, mid), new SampleTask(originX, originZ, step, f, mid, to));
+        }
+    }
+
+    @SuppressWarnings("serial")
+    private class NormalTask extends RecursiveAction {
+
+        private final int from, to;
+
+        private NormalTask(int from, int to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= ROWS_PER_TASK) {
+                normalRows(from, to);
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new NormalTask(from, mid), new NormalTask(mid, to));
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package io.github.itzispyder.render.terrain;
+
+import io.github.itzispyder.math.MutableVector;
+import io.github.itzispyder.math.Vector;
+import io.github.itzispyder.render.WorldManager;
+
+/**
+ * Ground the camera walks on and bullets bounce off, see {@link WorldManager#setTerrain(Terrain)}
+ */
+public interface Terrain {
+
+    float getHeightAt(double worldX, double worldZ);
+
+    default Vector getGraphAt(Vector pos) {
+        return new Vector(pos.x, getHeightAt(pos.x, pos.z), pos.z);
+    }
+
+    /**
+     * Unit surface normal, by default from forward differences one unit along x and z
+     */
+    default MutableVector getNormalAt(double worldX, double worldZ, MutableVector dest) {
+        float height = getHeightAt(worldX, worldZ);
+        float slopeX = getHeightAt(worldX + 1, worldZ) - height;
+        float slopeZ = getHeightAt(worldX, worldZ + 1) - height;
+        return dest.set(-slopeX, 1, -slopeZ).normalize(); // (1, slopeX, 0) x (0, slopeZ, 1) negated
+    }
+
+    /**
+     * Called on the tick thread when this becomes the world's terrain
+     */
+    void attach(WorldManager world);
+
+    /**
+     * Called on the tick thread when another terrain replaces this one, everything added in the world must be removed
+     */
+    void detach(WorldManager world);
+
+    /**
+     * Called on the tick thread every tick while attached
+     * @param viewer where the world is seen from
+     */
+    default void onTick(WorldManager world, Vector viewer) {
+
+    }
+}
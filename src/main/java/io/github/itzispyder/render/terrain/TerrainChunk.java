@@ -0,0 +1,42 @@
+package io.github.itzispyder.render.terrain;
+
+import io.github.itzispyder.math.Box;
+import io.github.itzispyder.math.Mesh;
+import io.github.itzispyder.math.Vector;
+import io.github.itzispyder.math.VertexBuffer;
+import io.github.itzispyder.render.Entity;
+import io.github.itzispyder.render.EntityState;
+
+/**
+ * One square of a {@link ChunkedTerrain}, an entity of its own so it is culled on its own.
+ * The mesh is relative to the chunk's corner.
+ */
+public class TerrainChunk extends Entity {
+
+    final int chunkX, chunkZ;
+    final int generation;
+    boolean inWorld; // tick thread only
+
+    private final Mesh mesh;
+    private final Box bounds;
+
+    TerrainChunk(int chunkX, int chunkZ, int generation, Vector corner, Mesh mesh) {
+        super(corner);
+        this.chunkX = chunkX;
+        this.chunkZ = chunkZ;
+        this.generation = generation;
+        this.mesh = mesh;
+        this.bounds = mesh.getBounds() == null ? null : mesh.getBounds().offset(corner);
+    }
+
+    @Override
+    public void render(VertexBuffer buf, EntityState state, float tickDelta) {
+        Vector corner = state.position;
+        buf.instance(mesh, corner.x, corner.y, corner.z);
+    }
+
+    @Override
+    public Box getBoundingBox(EntityState state, float tickDelta) {
+        return bounds;
+    }
+}
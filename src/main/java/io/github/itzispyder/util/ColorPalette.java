@@ -0,0 +1,71 @@
+package io.github.itzispyder.util;
+
+import java.awt.*;
+
+/**
+ * Open addressing cache of ARGB value to {@link Color}, so the same color is only ever built once
+ */
+public class ColorPalette {
+
+    private int[] keys;
+    private Color[] values;
+    private int size;
+
+    public ColorPalette(int capacity) {
+        capacity = Integer.highestOneBit(Math.max(capacity, 8) - 1) << 1;
+        this.keys = new int[capacity];
+        this.values = new Color[capacity];
+    }
+
+    public ColorPalette() {
+        this(64);
+    }
+
+    public Color get(int argb) {
+        int mask = keys.length - 1;
+        for (int i = hash(argb) & mask; ; i = (i + 1) & mask) {
+            Color color = values[i];
+            if (color == null)
+                return put(i, argb);
+            if (keys[i] == argb)
+                return color;
+        }
+    }
+
+    private Color put(int slot, int argb) {
+        Color color = new Color(argb, true);
+        keys[slot] = argb;
+        values[slot] = color;
+
+        if (++size * 2 > keys.length)
+            grow();
+        return color;
+    }
+
+    private void grow() {
+        int[] oldKeys = keys;
+        Color[] oldValues = values;
+        keys = new int[oldKeys.length * 2];
+        values = new Color[oldValues.length * 2];
+
+        int mask = keys.length - 1;
+        for (int j = 0; j < oldKeys.length; j++) {
+            if (oldValues[j] == null)
+                continue;
+            int i = hash(oldKeys[j]) & mask;
+            while (values[i] != null)
+                i = (i + 1) & mask;
+            keys[i] = oldKeys[j];
+            values[i] = oldValues[j];
+        }
+    }
+
+    private static int hash(int argb) {
+        int h = argb * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    public int size() {
+        return size;
+    }
+}
@@ -1,5 +1,6 @@
 package io.github.itzispyder.util;
 
+import io.github.itzispyder.math.MutableVector;
 import io.github.itzispyder.math.Vector;
 
 public class Mth {
@@ -42,6 +43,10 @@ public class Mth {
         return a.add(b.sub(a).mul(delta));
     }
 
+    public static MutableVector lerp(Vector a, Vector b, float delta, MutableVector dest) {
+        return dest.lerp(a, b, delta);
+    }
+
     public static float clamp(float val, float min, float max) {
         return Math.max(min, Math.min(val, max));
     }
@@ -0,0 +1,51 @@
+package io.github.itzispyder.util;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Lock-free hand-off of whole objects from one writer thread to one reader thread.
+ * The writer fills its back slot and publishes it, the reader always picks up the newest published slot,
+ * and neither side ever touches a slot the other one owns.
+ */
+public class TripleBuffer<T> {
+
+    private static final int INDEX = 0b11;
+    private static final int FRESH = 0b100;
+
+    private final Object[] slots;
+    private final AtomicInteger middle;
+    private int back, front;
+
+    public TripleBuffer(Supplier<T> factory) {
+        this.slots = new Object[] {factory.get(), factory.get(), factory.get()};
+        this.front = 0;
+        this.middle = new AtomicInteger(1);
+        this.back = 2;
+    }
+
+    /**
+     * @return the slot owned by the writer
+     */
+    @SuppressWarnings("unchecked")
+    public T getBack() {
+        return (T) slots[back];
+    }
+
+    /**
+     * Hands the back slot to the reader, the writer gets a free slot in return
+     */
+    public void publish() {
+        back = middle.getAndSet(back | FRESH) & INDEX;
+    }
+
+    /**
+     * @return the newest published slot, owned by the reader until the next call
+     */
+    @SuppressWarnings("unchecked")
+    public T acquire() {
+        if ((middle.get() & FRESH) != 0)
+            front = middle.getAndSet(front) & INDEX;
+        return (T) slots[front];
+    }
+}
@@ -0,0 +1,116 @@
+package io.github.itzispyder.math;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class CommandListTest {
+
+    private static final int RED = 0xFFFF0000, BLUE = 0xFF0000FF, GREEN = 0xFF00FF00;
+
+    private CommandList commands;
+    private List<String> drawn;
+    private PrimitiveSink recorder;
+
+    @BeforeEach
+    void setUp() {
+        commands = new CommandList();
+        drawn = new ArrayList<>();
+        recorder = new PrimitiveSink() {
+            @Override
+            public void line(int x1, int y1, int x2, int y2, int color) {
+                drawn.add("line " + x1 + " " + Integer.toHexString(color));
+            }
+
+            @Override
+            public void quad(int[] xPoints, int[] yPoints, int color) {
+                drawn.add("quad " + xPoints[0] + " " + Integer.toHexString(color));
+            }
+
+            @Override
+            public void triangle(int[] xPoints, int[] yPoints, int color) {
+                drawn.add("triangle " + xPoints[0] + " " + Integer.toHexString(color));
+            }
+
+            @Override
+            public void polyline(int[] xPoints, int[] yPoints, int offset, int count, int color) {
+                drawn.add("polyline " + xPoints[offset] + " " + count + " " + Integer.toHexString(color));
+            }
+        };
+    }
+
+    @Test
+    void mergesPrimitivesWithSameState() {
+        line(1, RED);
+        line(2, RED);
+        line(3, BLUE);
+        quad(4, RED);
+        quad(5, RED);
+        polyline(6, RED);
+        polyline(7, RED);
+
+        assertEquals(5, commands.getCommandCount());
+    }
+
+    @Test
+    void replaysInRecordingOrderUnsorted() {
+        line(1, RED);
+        line(2, BLUE);
+        quad(3, GREEN);
+        line(4, RED);
+        commands.execute(recorder);
+
+        assertEquals(List.of("line 1 ffff0000", "line 2 ff0000ff", "quad 3 ff00ff00", "line 4 ffff0000"), drawn);
+    }
+
+    @Test
+    void sortsLinesBetweenFills() {
+        line(1, RED);
+        line(2, BLUE);
+        line(3, RED);
+        polyline(4, BLUE);
+        quad(5, GREEN);
+        line(6, RED);
+        line(7, BLUE);
+        triangle(8, RED);
+        commands.sort();
+        commands.execute(recorder);
+
+        assertEquals(List.of(
+                "line 2 ff0000ff", "polyline 4 3 ff0000ff", "line 1 ffff0000", "line 3 ffff0000",
+                "quad 5 ff00ff00",
+                "line 7 ff0000ff", "line 6 ffff0000",
+                "triangle 8 ffff0000"), drawn);
+    }
+
+    @Test
+    void replaysUnsortedAfterNewCommand() {
+        line(1, RED);
+        line(2, BLUE);
+        commands.sort();
+        line(3, GREEN);
+        commands.execute(recorder);
+
+        assertEquals(List.of("line 1 ffff0000", "line 2 ff0000ff", "line 3 ff00ff00"), drawn);
+    }
+
+    private void line(int x, int color) {
+        commands.line(x, 0, x, 1, color);
+    }
+
+    private void quad(int x, int color) {
+        commands.quad(new int[] { x, x, x, x }, new int[] { 0, 0, 1, 1 }, color);
+    }
+
+    private void triangle(int x, int color) {
+        commands.triangle(new int[] { x, x, x }, new int[] { 0, 0, 1 }, color);
+    }
+
+    private void polyline(int x, int color) {
+        commands.polyline(new int[] { x, x, x }, new int[] { 0, 1, 2 }, 0, 3, color);
+    }
+}
@@ -0,0 +1,105 @@
+package io.github.itzispyder.math;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MeshOptimizerTest {
+
+    private VertexBuffer buf;
+
+    @BeforeEach
+    void setUp() {
+        buf = new VertexBuffer(64);
+    }
+
+    @Test
+    void weldsSharedCorners() {
+        line(0, 0, 1, 0);
+        line(1, 0, 1, 1);
+        line(1, 1, 0, 1);
+        Mesh mesh = buf.toMesh().optimized();
+
+        assertTrue(mesh.isIndexed());
+        assertEquals(4, mesh.getVertexCount());
+        assertArrayEquals(new int[] { 0, 1, 1, 2, 2, 3 }, mesh.getIndexArray());
+    }
+
+    @Test
+    void keepsDifferentColorsApart() {
+        buf.vertex(0, 0, 0, 0xFFFF0000);
+        buf.vertex(1, 0, 0, 0xFFFF0000);
+        buf.vertex(1, 0, 0, 0xFF00FF00);
+        buf.vertex(2, 0, 0, 0xFF00FF00);
+        Mesh mesh = buf.toMesh().optimized();
+
+        assertEquals(4, mesh.getVertexCount());
+        assertEquals(4, mesh.getSize());
+    }
+
+    @Test
+    void dropsDegenerateAndRepeatedSegments() {
+        line(0, 0, 1, 0);
+        line(2, 2, 2, 2); // degenerate
+        line(1, 0, 0, 0); // reversed repeat
+        line(0, 0, 1, 0); // exact repeat
+        line(1, 0, 2, 0);
+        Mesh mesh = buf.toMesh().optimized();
+
+        assertEquals(4, mesh.getSize());
+        assertArrayEquals(new int[] { 0, 1, 1, 3 }, mesh.getIndexArray());
+        assertEquals(2, mesh.getXArray()[3]);
+    }
+
+    @Test
+    void keepsConnectedRunsWhole() {
+        line(0, 0, 1, 0);
+        buf.swap(VertexFormat.LINE_STRIP);
+        buf.vertex(0, 0, 0);
+        buf.vertex(1, 0, 0);
+        buf.vertex(0, 0, 0);
+        buf.swap(VertexFormat.LINES);
+        line(0, 0, 1, 0); // repeat of the first segment, dropped
+        line(0, 1, 1, 1);
+        Mesh mesh = buf.toMesh().optimized();
+
+        assertArrayEquals(new int[] { 0, 1, 0, 1, 0, 2, 3 }, mesh.getIndexArray());
+        assertEquals(3, mesh.getModeCount());
+        assertEquals(VertexFormat.LINES, mesh.getModeFormat(0));
+        assertEquals(VertexFormat.LINE_STRIP, mesh.getModeFormat(1));
+        assertEquals(2, mesh.getModeStart(1));
+        assertEquals(VertexFormat.LINES, mesh.getModeFormat(2));
+        assertEquals(5, mesh.getModeStart(2));
+    }
+
+    @Test
+    void dropsRunsThatLoseEveryPrimitive() {
+        line(0, 0, 1, 0);
+        buf.swap(VertexFormat.QUADS);
+        buf.vertex(0, 0, 0);
+        buf.vertex(1, 0, 0);
+        buf.vertex(1, 1, 0);
+        buf.vertex(0, 1, 0);
+        buf.swap(VertexFormat.LINES);
+        line(1, 0, 0, 0); // repeat, the whole run goes
+        buf.swap(VertexFormat.QUADS);
+        buf.vertex(0, 0, 1);
+        buf.vertex(1, 0, 1);
+        buf.vertex(1, 1, 1);
+        buf.vertex(0, 1, 1);
+        Mesh mesh = buf.toMesh().optimized();
+
+        assertEquals(10, mesh.getSize());
+        assertEquals(2, mesh.getModeCount());
+        assertEquals(VertexFormat.QUADS, mesh.getModeFormat(1));
+        assertEquals(2, mesh.getModeStart(1));
+    }
+
+    private void line(float x0, float y0, float x1, float y1) {
+        buf.vertex(x0, y0, 0);
+        buf.vertex(x1, y1, 0);
+    }
+}
@@ -0,0 +1,105 @@
+package io.github.itzispyder.math;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class VertexBufferTest {
+
+    private VertexBuffer src, dest;
+
+    @BeforeEach
+    void setUp() {
+        src = new VertexBuffer(4);
+        dest = new VertexBuffer(4);
+    }
+
+    @Test
+    void uploadAppendsVertices() {
+        dest.vertex(1, 2, 3, 0xFF000001);
+        src.vertex(4, 5, 6, 0xFF000002);
+        src.vertex(7, 8, 9, 0xFF000003);
+        src.uploadTo(dest);
+
+        assertEquals(3, dest.getSize());
+        assertEquals(4, dest.getX(1));
+        assertEquals(9, dest.getZ(2));
+        assertEquals(0xFF000003, dest.getColor(2));
+        assertEquals(2, src.getSize());
+    }
+
+    @Test
+    void uploadMergesLinesIntoLines() {
+        line(dest);
+        line(src);
+        src.uploadTo(dest);
+
+        assertEquals(4, dest.getSize());
+        assertEquals(0, dest.getModeCount());
+    }
+
+    @Test
+    void uploadRestoresLinesAfterOtherFormat() {
+        dest.swap(VertexFormat.QUADS);
+        quad(dest);
+        line(src);
+        src.swap(VertexFormat.QUADS);
+        quad(src);
+        src.uploadTo(dest);
+
+        assertEquals(3, dest.getModeCount());
+        assertEquals(VertexFormat.QUADS, dest.getModeFormat(0));
+        assertEquals(VertexFormat.LINES, dest.getModeFormat(1));
+        assertEquals(4, dest.getModeStart(1));
+        assertEquals(VertexFormat.QUADS, dest.getModeFormat(2));
+        assertEquals(6, dest.getModeStart(2));
+    }
+
+    @Test
+    void uploadKeepsConnectedRunsApart() {
+        dest.swap(VertexFormat.LINE_STRIP);
+        line(dest);
+        src.swap(VertexFormat.LINE_STRIP);
+        line(src);
+        src.uploadTo(dest);
+
+        assertEquals(2, dest.getModeCount());
+        assertEquals(0, dest.getModeStart(0));
+        assertEquals(VertexFormat.LINE_STRIP, dest.getModeFormat(1));
+        assertEquals(2, dest.getModeStart(1));
+    }
+
+    @Test
+    void uploadOffsetsInstances() {
+        Mesh mesh = new VertexBuffer(2).toMesh();
+        line(dest);
+        dest.instance(mesh, 0, 0, 0);
+        line(src);
+        src.instance(mesh, Matrix.IDENTITY, 1, 2, 3, 0xFFFF0000);
+        src.uploadTo(dest);
+
+        assertEquals(2, dest.getInstanceCount());
+        assertFalse(dest.isInstanceTinted(0));
+        assertSame(mesh, dest.getInstanceMesh(1));
+        assertEquals(4, dest.getInstanceAt(1));
+        assertTrue(dest.isInstanceTinted(1));
+        assertEquals(0xFFFF0000, dest.getInstanceColor(1));
+        assertEquals(3, dest.getInstanceTransformArray()[12 + 11]);
+    }
+
+    private static void line(VertexBuffer buf) {
+        buf.vertex(0, 0, 0);
+        buf.vertex(1, 0, 0);
+    }
+
+    private static void quad(VertexBuffer buf) {
+        buf.vertex(0, 0, 0);
+        buf.vertex(1, 0, 0);
+        buf.vertex(1, 1, 0);
+        buf.vertex(0, 1, 0);
+    }
+}
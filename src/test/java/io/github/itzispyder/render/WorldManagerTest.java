@@ -0,0 +1,79 @@
+package io.github.itzispyder.render;
+
+import io.github.itzispyder.render.entity.Sphere;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class WorldManagerTest {
+
+    private WorldManager world;
+    private Sphere a, b, c, d;
+
+    @BeforeEach
+    void setUp() {
+        world = new WorldManager();
+        a = new Sphere(1);
+        b = new Sphere(1);
+        c = new Sphere(1);
+        d = new Sphere(1);
+    }
+
+    @Test
+    void appliesChangesAtTickBoundary() {
+        world.addEntity(a);
+        assertEquals(0, world.getEntityCount());
+
+        world.publishSnapshot(null);
+        assertEntities(world.projectiles, a);
+        assertSame(a, world.acquireSnapshot().getEntity(1).entity);
+
+        world.removeEntity(a);
+        assertEntities(world.projectiles, a);
+        world.publishSnapshot(null);
+        assertEntities(world.projectiles);
+    }
+
+    @Test
+    void removalKeepsOrder() {
+        world.addEntity(a);
+        world.addEntity(b);
+        world.addEntity(c);
+        world.addEntity(d);
+        world.publishSnapshot(null);
+
+        world.removeEntity(b);
+        world.removeEntity(world.projectiles);
+        world.publishSnapshot(null);
+        assertEntities(a, c, d);
+    }
+
+    @Test
+    void removeThenAddInSameTickKeepsEntity() {
+        world.addEntity(a);
+        world.addEntity(b);
+        world.publishSnapshot(null);
+
+        world.removeEntity(a);
+        world.removeEntity(a);
+        world.addEntity(a);
+        world.publishSnapshot(null);
+        assertEntities(world.projectiles, b, a);
+    }
+
+    @Test
+    void addThenRemoveInSameTickNeverAppears() {
+        world.addEntity(a);
+        world.removeEntity(a);
+        world.publishSnapshot(null);
+        assertEntities(world.projectiles);
+    }
+
+    private void assertEntities(Entity... expected) {
+        assertEquals(expected.length, world.getEntityCount());
+        for (int i = 0; i < expected.length; i++)
+            assertSame(expected[i], world.getEntity(i));
+    }
+}
@@ -0,0 +1,88 @@
+package io.github.itzispyder.render.entity;
+
+import io.github.itzispyder.math.CameraView;
+import io.github.itzispyder.math.Frustum;
+import io.github.itzispyder.math.Matrix;
+import io.github.itzispyder.math.Vector;
+import io.github.itzispyder.math.VertexBuffer;
+import io.github.itzispyder.render.EntityState;
+import io.github.itzispyder.render.LevelOfDetail;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class ProjectileSystemTest {
+
+    private ProjectileSystem system;
+    private VertexBuffer buf;
+
+    @BeforeEach
+    void setUp() {
+        CameraView view = new CameraView(Vector.ZERO, Matrix.IDENTITY, 0.15F, 100, 1000, 500);
+        LevelOfDetail levelOfDetail = new LevelOfDetail();
+        levelOfDetail.begin(view);
+
+        system = new ProjectileSystem(levelOfDetail);
+        system.setFrustum(new Frustum(view, 200));
+        buf = new VertexBuffer(1024);
+    }
+
+    @Test
+    void skipsBulletsOutsideFrustum() {
+        bullet(0, 0, 20);   // ahead
+        bullet(0, 0, -20);  // behind
+        bullet(500, 0, 20); // far off to the side
+        bullet(0, 0, 300);  // past the view distance
+        system.render(buf, system.captureState(null), 1);
+
+        assertEquals(1, buf.getInstanceCount());
+        assertEquals(1, system.getDrawnProjectiles());
+        assertEquals(3, system.getCulledProjectiles());
+    }
+
+    @Test
+    void skipsMissilesOutsideFrustum() {
+        system.spawnMissile(new Vector(0, 0, 20), Vector.ZERO);
+        system.render(buf, system.captureState(null), 1);
+        int visibleSize = buf.getSize();
+
+        buf.clear();
+        system.spawnMissile(new Vector(0, 0, -20), Vector.ZERO);
+        system.spawnMissile(new Vector(0, 500, 20), Vector.ZERO);
+        system.render(buf, system.captureState(null), 1);
+
+        assertEquals(visibleSize, buf.getSize());
+        assertEquals(1, system.getDrawnProjectiles());
+        assertEquals(2, system.getCulledProjectiles());
+    }
+
+    @Test
+    void drawsEverythingWithoutFrustum() {
+        system.setFrustum(null);
+        bullet(0, 0, 20);
+        bullet(0, 0, -20);
+        system.render(buf, system.captureState(null), 1);
+
+        assertEquals(2, buf.getInstanceCount());
+        assertEquals(0, system.getCulledProjectiles());
+    }
+
+    @Test
+    void refillsPreviousState() {
+        bullet(0, 0, 20);
+        EntityState first = system.captureState(null);
+
+        bullet(0, 0, 30);
+        EntityState second = system.captureState(first);
+        system.render(buf, second, 1);
+
+        assertSame(first, second);
+        assertEquals(2, buf.getInstanceCount());
+    }
+
+    private void bullet(float x, float y, float z) {
+        system.spawnBullet(new Vector(x, y, z), Vector.ZERO, Matrix.IDENTITY, 0.5F, 0xFFFFFFFF, false);
+    }
+}
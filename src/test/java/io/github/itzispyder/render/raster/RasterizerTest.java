@@ -0,0 +1,127 @@
+package io.github.itzispyder.render.raster;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RasterizerTest {
+
+    private static final int WHITE = 0xFFFFFFFF;
+
+    private Rasterizer raster;
+
+    @BeforeEach
+    void setUp() {
+        raster = new Rasterizer();
+        raster.resize(16, 8);
+        raster.clear(0);
+    }
+
+    @Test
+    void keepsSegmentsInsideGuardBand() {
+        int[] dest = new int[4];
+        assertTrue(Rasterizer.clipLine(-10, 5, 90, 40, 100, 50, dest));
+        assertArrayEquals(new int[] { -10, 5, 90, 40 }, dest);
+    }
+
+    @Test
+    void clipsSegmentsToGuardBand() {
+        int[] dest = new int[4];
+        assertTrue(Rasterizer.clipLine(-100000, 10, 100000, 10, 100, 50, dest));
+        assertArrayEquals(new int[] { -64, 10, 164, 10 }, dest);
+
+        assertTrue(Rasterizer.clipLine(50, 25, 50, Integer.MAX_VALUE, 100, 50, dest));
+        assertArrayEquals(new int[] { 50, 25, 50, 114 }, dest);
+    }
+
+    @Test
+    void rejectsSegmentsOutsideGuardBand() {
+        int[] dest = new int[4];
+        assertFalse(Rasterizer.clipLine(-1000, -1000, -1000, 1000, 100, 50, dest));
+        assertFalse(Rasterizer.clipLine(-1000, -500, 1000, -400, 100, 50, dest));
+    }
+
+    @Test
+    void drawsLineAcrossWholeRow() {
+        raster.line(-100000, 3, 100000, 3, WHITE);
+        int[] pixels = pixels();
+
+        for (int y = 0; y < 8; y++)
+            for (int x = 0; x < 16; x++)
+                assertEquals(y == 3, isSet(pixels, x, y), x + ", " + y);
+    }
+
+    @Test
+    void drawsBothEndpoints() {
+        raster.line(7, 7, 0, 0, WHITE);
+        int[] pixels = pixels();
+
+        assertEquals(8, count(pixels));
+        for (int i = 0; i < 8; i++)
+            assertTrue(isSet(pixels, i, i));
+    }
+
+    @Test
+    void skipsLineOffScreen() {
+        raster.line(-50, -5, 50, -5, WHITE);
+        raster.line(20, 0, 40, 7, WHITE);
+        assertEquals(0, count(pixels()));
+    }
+
+    @Test
+    void fillsPixelCentersInside() {
+        raster.quad(new int[] { 2, 6, 6, 2 }, new int[] { 2, 2, 5, 5 }, WHITE);
+        int[] pixels = pixels();
+
+        assertEquals(12, count(pixels));
+        assertTrue(isSet(pixels, 2, 2));
+        assertTrue(isSet(pixels, 5, 4));
+        assertFalse(isSet(pixels, 6, 4));
+        assertFalse(isSet(pixels, 5, 5));
+    }
+
+    @Test
+    void clipsFillToFrame() {
+        raster.quad(new int[] { -100, 100, 100, -100 }, new int[] { -100, -100, 100, 100 }, WHITE);
+        assertEquals(16 * 8, count(pixels()));
+    }
+
+    @Test
+    void fillsEvenOdd() {
+        // bow tie, the two halves meet at (4, 4)
+        raster.quad(new int[] { 0, 8, 8, 0 }, new int[] { 0, 8, 0, 8 }, WHITE);
+        int[] pixels = pixels();
+
+        assertTrue(isSet(pixels, 0, 4));
+        assertTrue(isSet(pixels, 7, 4));
+        assertFalse(isSet(pixels, 4, 1));
+        assertFalse(isSet(pixels, 4, 6));
+    }
+
+    private int[] pixels() {
+        BufferedImage image = new BufferedImage(raster.getWidth(), raster.getHeight(), BufferedImage.TYPE_INT_RGB);
+        Graphics graphics = image.getGraphics();
+        raster.blit(graphics);
+        graphics.dispose();
+        return image.getRGB(0, 0, image.getWidth(), image.getHeight(), null, 0, image.getWidth());
+    }
+
+    private boolean isSet(int[] pixels, int x, int y) {
+        return (pixels[y * raster.getWidth() + x] & 0xFFFFFF) != 0;
+    }
+
+    private static int count(int[] pixels) {
+        int count = 0;
+        for (int pixel : pixels)
+            if ((pixel & 0xFFFFFF) != 0)
+                count++;
+        return count;
+    }
+}
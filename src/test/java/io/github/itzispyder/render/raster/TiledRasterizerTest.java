@@ -0,0 +1,93 @@
+package io.github.itzispyder.render.raster;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+
+class TiledRasterizerTest {
+
+    private static final int WIDTH = 200, HEIGHT = 150;
+
+    private Rasterizer direct;
+    private TiledRasterizer tiled;
+
+    @BeforeEach
+    void setUp() {
+        direct = new Rasterizer();
+        tiled = new TiledRasterizer();
+        direct.resize(WIDTH, HEIGHT);
+        tiled.resize(WIDTH, HEIGHT);
+        direct.clear(0);
+        tiled.clear(0);
+    }
+
+    @Test
+    void matchesDirectLinesAcrossTiles() {
+        line(-5000, 70, 5000, 80, 0xFFFF0000);
+        line(63, 0, 64, 149, 0xFF00FF00);
+        line(0, 0, 199, 149, 0xFF0000FF);
+        line(199, 0, 0, 149, 0x80FFFFFF);
+        line(128, 64, 128, 64, 0xFFFFFF00);
+        assertSamePixels();
+    }
+
+    @Test
+    void matchesDirectFillsAcrossTiles() {
+        quad(new int[] { 10, 190, 150, 30 }, new int[] { 20, 10, 140, 120 }, 0xFF336699);
+        quad(new int[] { 40, 160, 160, 40 }, new int[] { 30, 120, 30, 120 }, 0x80FF8800); // bow tie
+        triangle(new int[] { -300, 500, 64 }, new int[] { 64, 64, -200 }, 0xFF00FFFF);
+        assertSamePixels();
+    }
+
+    @Test
+    void matchesDirectInSubmissionOrder() {
+        Random random = new Random(42);
+        for (int i = 0; i < 500; i++) {
+            int color = random.nextInt() | (random.nextBoolean() ? 0xFF000000 : 0x60000000);
+            int[] xs = new int[4], ys = new int[4];
+            for (int j = 0; j < 4; j++) {
+                xs[j] = random.nextInt(WIDTH + 100) - 50;
+                ys[j] = random.nextInt(HEIGHT + 100) - 50;
+            }
+            switch (i % 3) {
+                case 0 -> line(xs[0], ys[0], xs[1], ys[1], color);
+                case 1 -> triangle(xs, ys, color);
+                default -> quad(xs, ys, color);
+            }
+        }
+        assertSamePixels();
+    }
+
+    private void line(int x1, int y1, int x2, int y2, int color) {
+        direct.line(x1, y1, x2, y2, color);
+        tiled.line(x1, y1, x2, y2, color);
+    }
+
+    private void quad(int[] xs, int[] ys, int color) {
+        direct.quad(xs, ys, color);
+        tiled.quad(xs, ys, color);
+    }
+
+    private void triangle(int[] xs, int[] ys, int color) {
+        direct.triangle(xs, ys, color);
+        tiled.triangle(xs, ys, color);
+    }
+
+    private void assertSamePixels() {
+        tiled.flush();
+        assertArrayEquals(pixels(direct), pixels(tiled));
+    }
+
+    private static int[] pixels(Rasterizer raster) {
+        BufferedImage image = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_RGB);
+        Graphics graphics = image.getGraphics();
+        raster.blit(graphics);
+        graphics.dispose();
+        return image.getRGB(0, 0, WIDTH, HEIGHT, null, 0, WIDTH);
+    }
+}
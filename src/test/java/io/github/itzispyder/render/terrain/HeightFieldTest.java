@@ -0,0 +1,80 @@
+package io.github.itzispyder.render.terrain;
+
+import io.github.itzispyder.math.MutableVector;
+import io.github.itzispyder.math.VertexBuffer;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class HeightFieldTest {
+
+    private static final float EPSILON = 1e-4F;
+
+    @Test
+    void interpolatesBetweenSamples() {
+        HeightField field = new HeightField(0, 0, 1, 4, 4, (x, z) -> x * x);
+
+        assertEquals(1, field.getHeight(1, 3), EPSILON);
+        assertEquals(0.5F, field.getHeight(0.5F, 2), EPSILON); // a straight line between samples, not 0.25
+        assertEquals(6.5F, field.getHeight(2.5F, 0.75F), EPSILON);
+    }
+
+    @Test
+    void reproducesPlanesExactly() {
+        HeightField field = new HeightField(-10, 5, 2.5, 8, 6, (x, z) -> 2 * x + 3 * z);
+
+        assertEquals(2 * -3.7F + 3 * 11.2F, field.getHeight(-3.7F, 11.2F), EPSILON);
+        assertEquals(2 * 10F + 3 * 20F, field.getHeight(10, 20), EPSILON); // far corner
+    }
+
+    @Test
+    void clampsOutsideGrid() {
+        HeightField field = new HeightField(0, 0, 1, 4, 4, (x, z) -> x + 10 * z);
+
+        assertEquals(field.getSample(0, 0), field.getHeight(-5, -5), EPSILON);
+        assertEquals(field.getSample(4, 2), field.getHeight(100, 2), EPSILON);
+        assertEquals(field.getSample(4, 4), field.getHeight(100, 100), EPSILON);
+    }
+
+    @Test
+    void computesPlaneNormalsEverywhere() {
+        HeightField field = new HeightField(0, 0, 0.5, 6, 6, (x, z) -> 2 * x - 3 * z);
+        MutableVector normal = new MutableVector();
+        float length = (float) Math.sqrt(14);
+
+        for (float[] at : new float[][] { { 0, 0 }, { 1.3F, 2.2F }, { 3, 3 }, { 3, 1 } }) {
+            field.getNormal(at[0], at[1], normal);
+            assertEquals(-2 / length, normal.x, EPSILON);
+            assertEquals(1 / length, normal.y, EPSILON);
+            assertEquals(3 / length, normal.z, EPSILON);
+        }
+    }
+
+    @Test
+    void samplesLargeGridsOnce() {
+        AtomicInteger calls = new AtomicInteger();
+        HeightField field = new HeightField(0, 0, 1, 100, 80, (x, z) -> {
+            calls.incrementAndGet();
+            return x * 1000 + z;
+        });
+
+        assertEquals(101 * 81, calls.get());
+        assertEquals(37_042, field.getSample(37, 42));
+        assertEquals(100_080, field.getSample(100, 80));
+    }
+
+    @Test
+    void buildsGridLines() {
+        HeightField field = new HeightField(0, 0, 1, 2, 3, (x, z) -> 0);
+        VertexBuffer buf = new VertexBuffer(64);
+
+        field.buildVertices(buf, 0, 0, 0, 0xFFFFFFFF, true);
+        assertEquals(2 * (3 * 3 + 4 * 2), buf.getSize());
+
+        buf.clear();
+        field.buildVertices(buf, 0, 0, 0, 0xFFFFFFFF, false);
+        assertEquals(2 * (2 * 3 + 3 * 2), buf.getSize());
+    }
+}
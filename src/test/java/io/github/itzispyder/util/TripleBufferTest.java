@@ -0,0 +1,82 @@
+package io.github.itzispyder.util;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TripleBufferTest {
+
+    private TripleBuffer<int[]> buffer;
+
+    @BeforeEach
+    void setUp() {
+        buffer = new TripleBuffer<>(() -> new int[1]);
+    }
+
+    @Test
+    void keepsFrontUntilPublished() {
+        int[] front = buffer.acquire();
+        buffer.getBack()[0] = 1;
+
+        assertSame(front, buffer.acquire());
+        assertEquals(0, buffer.acquire()[0]);
+    }
+
+    @Test
+    void handsOverPublishedSlot() {
+        int[] back = buffer.getBack();
+        back[0] = 1;
+        buffer.publish();
+
+        assertSame(back, buffer.acquire());
+        assertSame(back, buffer.acquire());
+        assertNotSame(back, buffer.getBack());
+    }
+
+    @Test
+    void skipsToNewestPublished() {
+        buffer.getBack()[0] = 1;
+        buffer.publish();
+        buffer.getBack()[0] = 2;
+        buffer.publish();
+
+        assertEquals(2, buffer.acquire()[0]);
+    }
+
+    @Test
+    void neverGivesWriterTheFront() {
+        for (int i = 0; i < 10; i++) {
+            buffer.getBack()[0] = i;
+            buffer.publish();
+            if (i % 3 == 0)
+                buffer.acquire();
+            assertNotSame(buffer.acquire(), buffer.getBack());
+        }
+    }
+
+    @Test
+    void readerSeesIncreasingValues() throws InterruptedException {
+        int count = 200_000;
+        Thread writer = new Thread(() -> {
+            for (int i = 1; i <= count; i++) {
+                buffer.getBack()[0] = i;
+                buffer.publish();
+            }
+        });
+
+        writer.start();
+        int last = 0;
+        while (last < count) {
+            int value = buffer.acquire()[0];
+            assertTrue(value >= last, "read " + value + " after " + last);
+            last = value;
+        }
+        writer.join();
+
+        assertEquals(count, buffer.acquire()[0]);
+    }
+}